@@ -0,0 +1,36 @@
+plugins {
+    id("io.github.rift.java")
+}
+
+dependencies {
+    implementation(project(":rift-serializer-jackson"))
+    implementation(project(":rift-bridge-redis"))
+    implementation(libs.caffeine)
+    implementation(libs.jmh.core)
+    annotationProcessor(libs.jmh.generator.annprocess)
+}
+
+val jmh by tasks.registering(JavaExec::class) {
+    group = "benchmark"
+    description = "Runs all JMH benchmarks against the in-process Redis stand-in."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    val results = layout.buildDirectory.file("results/jmh/results.json")
+    outputs.file(results)
+    args("-rf", "json", "-rff", results.get().asFile.path)
+    // e.g. -Pjmh.include=SerializerBenchmark -Pjmh.args="-prof gc"
+    providers.gradleProperty("jmh.args").orNull?.let { args(it.split(' ')) }
+    providers.gradleProperty("jmh.include").orNull?.let { args(it) }
+}
+
+val jmhSmoke by tasks.registering(JavaExec::class) {
+    group = "benchmark"
+    description = "Runs every JMH benchmark for a single short iteration, failing on any error."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    args("-f", "0", "-wi", "0", "-i", "1", "-r", "100ms", "-foe", "true")
+}
+
+tasks.check {
+    dependsOn(jmhSmoke)
+}
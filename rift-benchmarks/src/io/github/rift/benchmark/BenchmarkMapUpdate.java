@@ -0,0 +1,72 @@
+package io.github.rift.benchmark;
+
+import io.github.rift.map.CachedMapUpdate;
+import io.github.rift.serializer.jackson.AbstractJacksonPacket;
+import java.util.Map;
+
+public class BenchmarkMapUpdate extends AbstractJacksonPacket implements CachedMapUpdate {
+
+    private String key;
+    private String value;
+    private long expiresAt;
+    private String origin;
+    private long version;
+    private Map<String, String> entries;
+
+    private BenchmarkMapUpdate() {}
+
+    public BenchmarkMapUpdate(String key, String value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Map<String, String> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public void setEntries(Map<String, String> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.rift.benchmark;
+
+import io.github.rift.serializer.jackson.AbstractJacksonPacket;
+import java.util.List;
+import java.util.UUID;
+
+public class BenchmarkPacket extends AbstractJacksonPacket {
+
+    private UUID uniqueId;
+    private String content;
+    private long sequence;
+    private List<String> tags;
+
+    private BenchmarkPacket() {}
+
+    public BenchmarkPacket(UUID uniqueId, String content, long sequence, List<String> tags) {
+        this.uniqueId = uniqueId;
+        this.content = content;
+        this.sequence = sequence;
+        this.tags = tags;
+    }
+
+    public static BenchmarkPacket sample() {
+        return new BenchmarkPacket(
+                UUID.randomUUID(), "player moved to 12 64 -300 in world_nether", 42L, List.of("movement", "nether"));
+    }
+
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.rift.benchmark;
+
+import io.github.rift.serializer.jackson.JacksonSerializable;
+import java.util.Map;
+import java.util.UUID;
+
+public class BenchmarkPojo implements JacksonSerializable {
+
+    private UUID uniqueId;
+    private String name;
+    private int level;
+    private Map<String, String> attributes;
+
+    private BenchmarkPojo() {}
+
+    public BenchmarkPojo(UUID uniqueId, String name, int level, Map<String, String> attributes) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.level = level;
+        this.attributes = attributes;
+    }
+
+    public static BenchmarkPojo sample(int index) {
+        return new BenchmarkPojo(
+                UUID.randomUUID(), "player-" + index, index % 100, Map.of("health", "20", "world", "overworld"));
+    }
+
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+}
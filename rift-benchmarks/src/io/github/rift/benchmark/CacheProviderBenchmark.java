@@ -0,0 +1,63 @@
+package io.github.rift.benchmark;
+
+import io.github.rift.cache.AsyncCaffeineCacheProvider;
+import io.github.rift.cache.CacheProvider;
+import io.github.rift.cache.CaffeineCacheProvider;
+import io.github.rift.cache.DefaultCacheProvider;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheProviderBenchmark {
+
+    @Param({"default", "caffeine", "async-caffeine"})
+    private String provider;
+
+    @Param("10000")
+    private int size;
+
+    private String[] keys;
+    private CacheProvider<String, BenchmarkPojo> cacheProvider;
+
+    @Setup
+    public void setUp() {
+        cacheProvider = switch (provider) {
+            case "default" -> new DefaultCacheProvider<>();
+            case "caffeine" -> new CaffeineCacheProvider<>();
+            case "async-caffeine" -> new AsyncCaffeineCacheProvider<>();
+            default -> throw new IllegalArgumentException("Unknown cache provider " + provider);
+        };
+
+        keys = new String[size];
+        for (int index = 0; index < size; index++) {
+            keys[index] = "key-" + index;
+            cacheProvider.put(keys[index], BenchmarkPojo.sample(index));
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        return cacheProvider.get(keys[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Benchmark
+    public Object getMissing() {
+        return cacheProvider.get("missing");
+    }
+
+    @Benchmark
+    public void put() {
+        String key = keys[ThreadLocalRandom.current().nextInt(size)];
+        cacheProvider.put(key, cacheProvider.get(key));
+    }
+}
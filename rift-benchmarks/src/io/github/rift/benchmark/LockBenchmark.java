@@ -0,0 +1,35 @@
+package io.github.rift.benchmark;
+
+import io.github.rift.lock.DistributedLock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockBenchmark {
+
+    private DistributedLock lock;
+
+    @Setup
+    public void setUp(RiftState state) {
+        lock = state.riftClient.getLock("benchmark-lock");
+    }
+
+    @Benchmark
+    public void execute(Blackhole blackhole) {
+        lock.execute(() -> blackhole.consume(lock));
+    }
+
+    @Benchmark
+    public void executeReentrant(Blackhole blackhole) {
+        lock.execute(() -> lock.execute(() -> blackhole.consume(lock)));
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.rift.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.rift.cache.CaffeineCacheProvider;
+import io.github.rift.map.CachedMap;
+import io.github.rift.map.CachedMapOptions;
+import io.github.rift.map.RiftMap;
+import io.github.rift.serializer.jackson.JacksonSerializable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapBenchmark {
+
+    private static final int FAN_OUT = 16;
+
+    @Param("1000")
+    private int size;
+
+    @Param("100")
+    private int batchSize;
+
+    @Param("1")
+    private int partitions;
+
+    @Param("VALUES")
+    private CachedMapOptions.Broadcast broadcast;
+
+    private String[] fields;
+    private BenchmarkPojo[] values;
+    private List<String> batchFields;
+    private Map<String, BenchmarkPojo> batchEntries;
+    private RiftMap<JacksonSerializable, String, BenchmarkPojo> map;
+    private CachedMap<JacksonSerializable, BenchmarkMapUpdate, String, BenchmarkPojo> cachedMap;
+    private CachedMap<JacksonSerializable, BenchmarkMapUpdate, String, BenchmarkPojo> readThroughCachedMap;
+    private CachedMap<JacksonSerializable, BenchmarkMapUpdate, String, BenchmarkPojo> writeBehindCachedMap;
+
+    @Setup
+    public void setUp(RiftState state) {
+        fields = new String[size];
+        values = new BenchmarkPojo[size];
+        map = state.riftClient.getMap("benchmark-map", partitions);
+        for (int index = 0; index < size; index++) {
+            fields[index] = "field-" + index;
+            values[index] = BenchmarkPojo.sample(index);
+            map.set(fields[index], values[index]);
+        }
+        batchFields = List.of(fields).subList(0, batchSize);
+        batchEntries = new HashMap<>();
+        for (int index = 0; index < batchSize; index++) {
+            batchEntries.put(fields[index], values[index]);
+        }
+        // Cached maps sit on a single hash, so they get their own copy whatever the partitioning.
+        state.riftClient.<String, BenchmarkPojo>getMap("benchmark-cached-map").setAll(map.entries());
+        cachedMap = state.riftClient.getCachedMap(
+                "benchmark-cached-map",
+                new CaffeineCacheProvider<>(),
+                BenchmarkMapUpdate::new,
+                CachedMapOptions.defaults().withBroadcast(broadcast));
+        readThroughCachedMap = state.riftClient.getCachedMap(
+                "benchmark-cached-map",
+                new CaffeineCacheProvider<>(Caffeine.newBuilder().maximumSize(size / 10).build()),
+                BenchmarkMapUpdate::new,
+                CachedMapOptions.readThrough(size / 10).withBroadcast(broadcast));
+        writeBehindCachedMap = state.riftClient.getCachedMap(
+                "benchmark-cached-map",
+                new CaffeineCacheProvider<>(),
+                BenchmarkMapUpdate::new,
+                CachedMapOptions.defaults().withBroadcast(broadcast).withWriteBehind(Duration.ofMillis(10L)));
+    }
+
+    @Benchmark
+    public Object mapGet() {
+        return map.get(fields[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean mapSet() {
+        int index = nextIndex();
+        return map.set(fields[index], values[index]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FAN_OUT)
+    public Object mapGetAsyncFanOut() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[FAN_OUT];
+        for (int index = 0; index < FAN_OUT; index++) {
+            futures[index] = map.getAsync(fields[nextIndex()]);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public Object mapGetAll() {
+        return map.getAll(batchFields);
+    }
+
+    @Benchmark
+    public boolean mapSetAll() {
+        return map.setAll(batchEntries);
+    }
+
+    @Benchmark
+    public long mapIncrementField() {
+        return map.incrementField("benchmark-counter", 1);
+    }
+
+    @Benchmark
+    public Object mapComputeIfAbsent() {
+        int index = nextIndex();
+        return map.computeIfAbsent(fields[index], () -> values[index]);
+    }
+
+    @Benchmark
+    public Object cachedMapGet() {
+        return cachedMap.get(fields[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object readThroughCachedMapGet() {
+        return readThroughCachedMap.get(fields[nextIndex()]);
+    }
+
+    @Benchmark
+    public long cachedMapValues() {
+        return cachedMap.values(CachedMapOptions.ReadConsistency.REMOTE).count();
+    }
+
+    @Benchmark
+    public long cachedMapLocalValues() {
+        return cachedMap.values(CachedMapOptions.ReadConsistency.LOCAL).count();
+    }
+
+    @Benchmark
+    public void cachedMapSet() {
+        int index = nextIndex();
+        cachedMap.set(fields[index], values[index]);
+    }
+
+    @Benchmark
+    public void writeBehindCachedMapSet() {
+        int index = nextIndex();
+        writeBehindCachedMap.set(fields[index], values[index]);
+    }
+
+    private int nextIndex() {
+        return ThreadLocalRandom.current().nextInt(size);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.rift.benchmark;
+
+import io.github.wisp.subscription.Subscribe;
+import io.github.wisp.subscription.Subscriber;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PacketBrokerBenchmark {
+
+    private static final String PUBLISH_TOPIC = "benchmark-publish";
+    private static final String REQUEST_TOPIC = "benchmark-request";
+    private static final int ASYNC_BATCH = 64;
+
+    private BenchmarkPacket packet;
+
+    @Setup
+    public void setUp(RiftState state) {
+        packet = BenchmarkPacket.sample();
+        state.riftClient.subscribe(new DiscardingSubscriber(PUBLISH_TOPIC));
+        state.riftClient.subscribe(new EchoSubscriber(REQUEST_TOPIC));
+    }
+
+    @Benchmark
+    public void publish(RiftState state) {
+        state.riftClient.publish(PUBLISH_TOPIC, packet);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ASYNC_BATCH)
+    public void publishAsync(RiftState state) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[ASYNC_BATCH];
+        for (int index = 0; index < ASYNC_BATCH; index++) {
+            futures[index] = state.riftClient.publishAsync(PUBLISH_TOPIC, packet);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public Object request(RiftState state) {
+        return state.riftClient
+                .request(REQUEST_TOPIC, BenchmarkPacket.sample())
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+    }
+
+    public record DiscardingSubscriber(String topic) implements Subscriber {
+
+        @Subscribe
+        public void handle(BenchmarkPacket packet) {}
+    }
+
+    public record EchoSubscriber(String topic) implements Subscriber {
+
+        @Subscribe
+        public BenchmarkPacket handle(BenchmarkPacket request) {
+            return new BenchmarkPacket(request.getUniqueId(), request.getContent(), request.getSequence() + 1, null);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.rift.benchmark;
+
+import io.github.rift.RiftClient;
+import io.github.rift.benchmark.redis.InMemoryRedisServer;
+import io.github.rift.redis.RedisRiftClient;
+import io.github.rift.scheduler.Scheduler;
+import io.github.rift.scheduler.StandaloneScheduler;
+import io.github.rift.serializer.jackson.JacksonPacket;
+import io.github.rift.serializer.jackson.JacksonSerializable;
+import io.github.rift.serializer.jackson.JacksonSerializerFactory;
+import io.lettuce.core.RedisClient;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Rift client connected to a fresh {@link InMemoryRedisServer}, shared by all threads of a benchmark.
+ */
+@State(Scope.Benchmark)
+public class RiftState {
+
+    InMemoryRedisServer server;
+    RedisClient redisClient;
+    Scheduler scheduler;
+    RiftClient<JacksonSerializable, JacksonPacket> riftClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = InMemoryRedisServer.start();
+        redisClient = RedisClient.create(server.uri());
+        scheduler = StandaloneScheduler.create();
+        riftClient = RedisRiftClient.create(JacksonSerializerFactory.create(), scheduler, redisClient);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        riftClient.close();
+        redisClient.shutdown();
+        ((StandaloneScheduler) scheduler).close();
+        server.close();
+    }
+}
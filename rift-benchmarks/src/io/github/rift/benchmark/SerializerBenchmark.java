@@ -0,0 +1,53 @@
+package io.github.rift.benchmark;
+
+import io.github.rift.serializer.Serializer;
+import io.github.rift.serializer.jackson.JacksonSerializerFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializerBenchmark {
+
+    private Serializer serializer;
+    private BenchmarkPacket packet;
+    private String payload;
+    private BenchmarkPojo pojo;
+    private String pojoPayload;
+
+    @Setup
+    public void setUp() {
+        serializer = JacksonSerializerFactory.create();
+        packet = BenchmarkPacket.sample();
+        payload = serializer.serialize(packet);
+        pojo = BenchmarkPojo.sample(1);
+        pojoPayload = serializer.serialize(pojo);
+    }
+
+    @Benchmark
+    public String serializePacket() {
+        return serializer.serialize(packet);
+    }
+
+    @Benchmark
+    public Object deserializePacket() {
+        return serializer.deserialize(payload);
+    }
+
+    @Benchmark
+    public String serializePojo() {
+        return serializer.serialize(pojo);
+    }
+
+    @Benchmark
+    public Object deserializePojo() {
+        return serializer.deserialize(pojoPayload);
+    }
+}
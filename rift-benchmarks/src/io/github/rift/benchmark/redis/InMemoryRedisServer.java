@@ -0,0 +1,709 @@
+package io.github.rift.benchmark.redis;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.logging.Level.FINE;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Minimal in-process stand-in for a Redis server, speaking RESP2 over a loopback socket.
+ *
+ * <p>It implements the subset of commands used by Rift (strings, hashes, key and hash-field
+ * expiration and pub/sub), so benchmarks exercise the real Lettuce client and network stack without
+ * an external server. Commands are executed one at a time under a single lock, mirroring the
+ * single-threaded command execution of Redis itself.
+ */
+public final class InMemoryRedisServer implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(InMemoryRedisServer.class.getSimpleName());
+
+    /**
+     * Marker returned by commands which already wrote their replies themselves.
+     */
+    public static final Object NO_REPLY = new Object();
+
+    private static final StatusReply OK = new StatusReply("OK");
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "in-memory-redis");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Command> commands = new HashMap<>();
+    private final Map<String, Object> data = new HashMap<>();
+    private final Map<String, Long> expirations = new HashMap<>();
+    private final Map<String, Map<String, Long>> fieldExpirations = new HashMap<>();
+    private final Map<String, Set<Client>> channels = new ConcurrentHashMap<>();
+    private final Map<String, Set<Client>> patterns = new ConcurrentHashMap<>();
+
+    private InMemoryRedisServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        registerCommands();
+        executor.execute(this::accept);
+    }
+
+    /**
+     * Starts a server listening on an ephemeral loopback port.
+     */
+    public static @NotNull InMemoryRedisServer start() throws IOException {
+        return new InMemoryRedisServer(new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public @NotNull String uri() {
+        return "redis://" + serverSocket.getInetAddress().getHostAddress() + ':' + port();
+    }
+
+    /**
+     * Registers an additional command, or replaces a built-in one.
+     */
+    public void register(@NotNull String name, @NotNull Command command) {
+        commands.put(name.toUpperCase(), command);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Client client = new Client(socket);
+                executor.execute(() -> serve(client));
+            } catch (IOException exception) {
+                logger.log(FINE, "Stopped accepting connections.", exception);
+                return;
+            }
+        }
+    }
+
+    private void serve(Client client) {
+        try (client) {
+            while (true) {
+                List<byte[]> arguments = client.readCommand();
+                if (arguments.isEmpty()) {
+                    continue;
+                }
+
+                Object reply = execute(client, arguments);
+                if (reply != NO_REPLY) {
+                    client.write(reply, client.input.available() == 0);
+                } else if (client.input.available() == 0) {
+                    client.flush();
+                }
+
+                if (client.closing) {
+                    return;
+                }
+            }
+        } catch (EOFException ignored) {
+            // client disconnected
+        } catch (IOException exception) {
+            logger.log(FINE, "Connection closed.", exception);
+        } finally {
+            channels.values().forEach(subscribers -> subscribers.remove(client));
+            patterns.values().forEach(subscribers -> subscribers.remove(client));
+        }
+    }
+
+    private Object execute(Client client, List<byte[]> arguments) throws IOException {
+        String name = string(arguments.get(0)).toUpperCase();
+        Command command = commands.get(name);
+        if (command == null) {
+            return new ErrorReply("ERR unknown command '%s'".formatted(name));
+        }
+
+        try {
+            synchronized (data) {
+                return command.execute(client, arguments);
+            }
+        } catch (IllegalStateException exception) {
+            return new ErrorReply(exception.getMessage());
+        } catch (RuntimeException exception) {
+            return new ErrorReply("ERR " + exception.getMessage());
+        }
+    }
+
+    private void registerCommands() {
+        // Lettuce falls back to RESP2 once the RESP3 handshake is rejected.
+        register("HELLO", (client, arguments) -> new ErrorReply("ERR unknown command 'HELLO'"));
+        register("CLIENT", (client, arguments) -> OK);
+        register("SELECT", (client, arguments) -> OK);
+        register("PING", (client, arguments) -> new StatusReply("PONG"));
+        register("QUIT", (client, arguments) -> {
+            client.closing = true;
+            return OK;
+        });
+        register("FLUSHALL", (client, arguments) -> {
+            data.clear();
+            expirations.clear();
+            fieldExpirations.clear();
+            return OK;
+        });
+        register("FLUSHDB", commands.get("FLUSHALL"));
+
+        registerStringCommands();
+        registerHashCommands();
+        registerPubSubCommands();
+    }
+
+    private void registerStringCommands() {
+        register("GET", (client, arguments) -> valueOf(string(arguments.get(1)), byte[].class));
+        register("SET", (client, arguments) -> {
+            String key = string(arguments.get(1));
+            long expireAt = -1;
+            boolean onlyIfAbsent = false;
+            boolean onlyIfPresent = false;
+            for (int index = 3; index < arguments.size(); index++) {
+                switch (string(arguments.get(index)).toUpperCase()) {
+                    case "EX" -> expireAt = System.currentTimeMillis() + 1000 * number(arguments.get(++index));
+                    case "PX" -> expireAt = System.currentTimeMillis() + number(arguments.get(++index));
+                    case "NX" -> onlyIfAbsent = true;
+                    case "XX" -> onlyIfPresent = true;
+                    default -> throw new IllegalArgumentException("syntax error");
+                }
+            }
+
+            boolean present = live(key) != null;
+            if (onlyIfAbsent && present || onlyIfPresent && !present) {
+                return null;
+            }
+
+            data.put(key, arguments.get(2));
+            expirations.remove(key);
+            fieldExpirations.remove(key);
+            if (expireAt != -1) {
+                expirations.put(key, expireAt);
+            }
+            return OK;
+        });
+        register("DEL", (client, arguments) -> {
+            long removed = 0;
+            for (int index = 1; index < arguments.size(); index++) {
+                String key = string(arguments.get(index));
+                if (live(key) != null) {
+                    data.remove(key);
+                    expirations.remove(key);
+                    fieldExpirations.remove(key);
+                    removed++;
+                }
+            }
+            return removed;
+        });
+        register("EXISTS", (client, arguments) -> {
+            long existing = 0;
+            for (int index = 1; index < arguments.size(); index++) {
+                if (live(string(arguments.get(index))) != null) {
+                    existing++;
+                }
+            }
+            return existing;
+        });
+        register("EXPIREAT", (client, arguments) -> expireAt(arguments, 1000 * number(arguments.get(2))));
+        register("PEXPIREAT", (client, arguments) -> expireAt(arguments, number(arguments.get(2))));
+        register("PTTL", (client, arguments) -> ttl(string(arguments.get(1)), 1));
+        register("TTL", (client, arguments) -> ttl(string(arguments.get(1)), 1000));
+        register("INCRBY", (client, arguments) -> increment(arguments, number(arguments.get(2))));
+        register("DECRBY", (client, arguments) -> increment(arguments, -number(arguments.get(2))));
+        register("INCR", (client, arguments) -> increment(arguments, 1));
+        register("DECR", (client, arguments) -> increment(arguments, -1));
+    }
+
+    private void registerHashCommands() {
+        register("HGET", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            return hash == null ? null : hash.get(string(arguments.get(2)));
+        });
+        register("HMGET", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            List<Object> values = new ArrayList<>(arguments.size() - 2);
+            for (int index = 2; index < arguments.size(); index++) {
+                values.add(hash == null ? null : hash.get(string(arguments.get(index))));
+            }
+            return values;
+        });
+        register("HSET", (client, arguments) -> {
+            if (arguments.size() < 4 || arguments.size() % 2 != 0) {
+                throw new IllegalArgumentException("wrong number of arguments for 'hset' command");
+            }
+
+            String key = string(arguments.get(1));
+            Map<String, byte[]> hash = hashOf(key, true);
+            long added = 0;
+            for (int index = 2; index < arguments.size(); index += 2) {
+                String field = string(arguments.get(index));
+                if (hash.put(field, arguments.get(index + 1)) == null) {
+                    added++;
+                }
+                forgetFieldExpiration(key, field);
+            }
+            return added;
+        });
+        register("HMSET", (client, arguments) -> {
+            commands.get("HSET").execute(client, arguments);
+            return OK;
+        });
+        register("HSETNX", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), true);
+            return hash.putIfAbsent(string(arguments.get(2)), arguments.get(3)) == null ? 1L : 0L;
+        });
+        register("HDEL", (client, arguments) -> {
+            String key = string(arguments.get(1));
+            Map<String, byte[]> hash = hashOf(key, false);
+            if (hash == null) {
+                return 0L;
+            }
+
+            long removed = 0;
+            for (int index = 2; index < arguments.size(); index++) {
+                String field = string(arguments.get(index));
+                if (hash.remove(field) != null) {
+                    removed++;
+                }
+                forgetFieldExpiration(key, field);
+            }
+
+            if (hash.isEmpty()) {
+                data.remove(key);
+                expirations.remove(key);
+            }
+            return removed;
+        });
+        register("HEXISTS", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            return hash != null && hash.containsKey(string(arguments.get(2))) ? 1L : 0L;
+        });
+        register("HLEN", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            return hash == null ? 0L : (long) hash.size();
+        });
+        register("HKEYS", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            return hash == null ? List.of() : new ArrayList<>(hash.keySet());
+        });
+        register("HVALS", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            return hash == null ? List.of() : new ArrayList<>(hash.values());
+        });
+        register("HGETALL", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            List<Object> entries = new ArrayList<>();
+            if (hash != null) {
+                hash.forEach((field, value) -> {
+                    entries.add(field);
+                    entries.add(value);
+                });
+            }
+            return entries;
+        });
+        register("HSCAN", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), false);
+            int cursor = (int) number(arguments.get(2));
+            int count = 10;
+            for (int index = 3; index < arguments.size(); index += 2) {
+                if (string(arguments.get(index)).equalsIgnoreCase("COUNT")) {
+                    count = (int) number(arguments.get(index + 1));
+                }
+            }
+
+            // The cursor is a position in insertion order, which is good enough for a quiescent hash.
+            List<Object> entries = new ArrayList<>();
+            int position = 0;
+            if (hash != null) {
+                for (Map.Entry<String, byte[]> entry : hash.entrySet()) {
+                    if (position++ < cursor) {
+                        continue;
+                    }
+
+                    if (entries.size() == 2 * count) {
+                        return List.of(Integer.toString(position - 1), entries);
+                    }
+                    entries.add(entry.getKey());
+                    entries.add(entry.getValue());
+                }
+            }
+            return List.of("0", entries);
+        });
+        register("HPEXPIRE", (client, arguments) -> {
+            String key = string(arguments.get(1));
+            Map<String, byte[]> hash = hashOf(key, false);
+            long expireAt = System.currentTimeMillis() + number(arguments.get(2));
+            List<Object> results = new ArrayList<>();
+            for (String field : fieldsOf(arguments)) {
+                if (hash == null || !hash.containsKey(field)) {
+                    results.add(-2L);
+                    continue;
+                }
+                fieldExpirations.computeIfAbsent(key, ignored -> new HashMap<>()).put(field, expireAt);
+                results.add(1L);
+            }
+            return results;
+        });
+        register("HPEXPIRETIME", (client, arguments) -> {
+            String key = string(arguments.get(1));
+            Map<String, byte[]> hash = hashOf(key, false);
+            Map<String, Long> deadlines = fieldExpirations.getOrDefault(key, Map.of());
+            List<Object> results = new ArrayList<>();
+            for (String field : fieldsOf(arguments)) {
+                results.add(hash == null || !hash.containsKey(field) ? -2L : deadlines.getOrDefault(field, -1L));
+            }
+            return results;
+        });
+        register("HINCRBY", (client, arguments) -> {
+            Map<String, byte[]> hash = hashOf(string(arguments.get(1)), true);
+            String field = string(arguments.get(2));
+            byte[] current = hash.get(field);
+            long value = (current == null ? 0 : number(current)) + number(arguments.get(3));
+            hash.put(field, Long.toString(value).getBytes(ISO_8859_1));
+            return value;
+        });
+    }
+
+    private void registerPubSubCommands() {
+        register("PUBLISH", (client, arguments) -> {
+            String channel = string(arguments.get(1));
+            byte[] message = arguments.get(2);
+            long receivers = 0;
+            for (Client subscriber : channels.getOrDefault(channel, Set.of())) {
+                subscriber.deliver(List.of("message", channel, message));
+                receivers++;
+            }
+
+            for (Map.Entry<String, Set<Client>> entry : patterns.entrySet()) {
+                if (!globOf(entry.getKey()).matcher(channel).matches()) {
+                    continue;
+                }
+
+                for (Client subscriber : entry.getValue()) {
+                    subscriber.deliver(List.of("pmessage", entry.getKey(), channel, message));
+                    receivers++;
+                }
+            }
+            return receivers;
+        });
+        register("SUBSCRIBE", (client, arguments) -> subscribe(client, arguments, channels, "subscribe"));
+        register("PSUBSCRIBE", (client, arguments) -> subscribe(client, arguments, patterns, "psubscribe"));
+        register("UNSUBSCRIBE", (client, arguments) -> unsubscribe(client, arguments, channels, "unsubscribe"));
+        register("PUNSUBSCRIBE", (client, arguments) -> unsubscribe(client, arguments, patterns, "punsubscribe"));
+    }
+
+    private Object subscribe(Client client, List<byte[]> arguments, Map<String, Set<Client>> targets, String kind)
+            throws IOException {
+        for (int index = 1; index < arguments.size(); index++) {
+            String target = string(arguments.get(index));
+            targets.computeIfAbsent(target, ignored -> ConcurrentHashMap.newKeySet()).add(client);
+            client.subscriptions++;
+            client.deliver(List.of(kind, target, (long) client.subscriptions));
+        }
+        return NO_REPLY;
+    }
+
+    private Object unsubscribe(
+            Client client, List<byte[]> arguments, Map<String, Set<Client>> targets, String kind)
+            throws IOException {
+        List<String> names = new ArrayList<>();
+        for (int index = 1; index < arguments.size(); index++) {
+            names.add(string(arguments.get(index)));
+        }
+
+        if (names.isEmpty()) {
+            targets.forEach((target, subscribers) -> {
+                if (subscribers.contains(client)) {
+                    names.add(target);
+                }
+            });
+        }
+
+        for (String target : names) {
+            Set<Client> subscribers = targets.get(target);
+            if (subscribers != null && subscribers.remove(client)) {
+                client.subscriptions--;
+            }
+            client.deliver(List.of(kind, target, (long) client.subscriptions));
+        }
+        return NO_REPLY;
+    }
+
+    private Object live(String key) {
+        Long expireAt = expirations.get(key);
+        if (expireAt != null && expireAt <= System.currentTimeMillis()) {
+            data.remove(key);
+            expirations.remove(key);
+            fieldExpirations.remove(key);
+            return null;
+        }
+        return data.get(key);
+    }
+
+    private <T> T valueOf(String key, Class<T> type) {
+        Object value = live(key);
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalStateException("WRONGTYPE Operation against a key holding the wrong kind of value");
+        }
+        return type.cast(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> hashOf(String key, boolean create) {
+        Map<String, byte[]> hash = valueOf(key, Map.class);
+        Map<String, Long> deadlines = fieldExpirations.get(key);
+        if (hash != null && deadlines != null) {
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<String, Long>> iterator = deadlines.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Long> deadline = iterator.next();
+                if (deadline.getValue() <= now) {
+                    hash.remove(deadline.getKey());
+                    iterator.remove();
+                }
+            }
+
+            if (deadlines.isEmpty()) {
+                fieldExpirations.remove(key);
+            }
+            if (hash.isEmpty()) {
+                data.remove(key);
+                expirations.remove(key);
+                fieldExpirations.remove(key);
+                hash = null;
+            }
+        }
+
+        if (hash == null && create) {
+            hash = new LinkedHashMap<>();
+            data.put(key, hash);
+        }
+        return hash;
+    }
+
+    private void forgetFieldExpiration(String key, String field) {
+        Map<String, Long> deadlines = fieldExpirations.get(key);
+        if (deadlines != null && deadlines.remove(field) != null && deadlines.isEmpty()) {
+            fieldExpirations.remove(key);
+        }
+    }
+
+    /**
+     * Returns the fields following the {@code FIELDS numfields} arguments of a hash-field expiration
+     * command.
+     */
+    private static List<String> fieldsOf(List<byte[]> arguments) {
+        for (int index = 2; index < arguments.size() - 1; index++) {
+            if (string(arguments.get(index)).equalsIgnoreCase("FIELDS")) {
+                int count = (int) number(arguments.get(index + 1));
+                return arguments.subList(index + 2, index + 2 + count).stream()
+                        .map(InMemoryRedisServer::string)
+                        .toList();
+            }
+        }
+        throw new IllegalArgumentException("syntax error");
+    }
+
+    private long expireAt(List<byte[]> arguments, long expireAt) {
+        String key = string(arguments.get(1));
+        if (live(key) == null) {
+            return 0L;
+        }
+        expirations.put(key, expireAt);
+        return 1L;
+    }
+
+    private long ttl(String key, long unit) {
+        if (live(key) == null) {
+            return -2L;
+        }
+
+        Long expireAt = expirations.get(key);
+        if (expireAt == null) {
+            return -1L;
+        }
+        return (expireAt - System.currentTimeMillis() + unit - 1) / unit;
+    }
+
+    private long increment(List<byte[]> arguments, long amount) {
+        String key = string(arguments.get(1));
+        byte[] current = valueOf(key, byte[].class);
+        long value = (current == null ? 0 : number(current)) + amount;
+        data.put(key, Long.toString(value).getBytes(ISO_8859_1));
+        return value;
+    }
+
+    private static Pattern globOf(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char character : glob.toCharArray()) {
+            switch (character) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(character)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    static String string(byte[] bytes) {
+        return new String(bytes, ISO_8859_1);
+    }
+
+    static long number(byte[] bytes) {
+        try {
+            return Long.parseLong(string(bytes));
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("value is not an integer or out of range");
+        }
+    }
+
+    @FunctionalInterface
+    public interface Command {
+
+        /**
+         * Executes a command while holding the data lock. Replies are {@link StatusReply}, {@link ErrorReply},
+         * {@link Long}, {@code byte[]} or {@link String} bulk strings, {@code null}, or lists thereof.
+         */
+        Object execute(@NotNull Client client, @NotNull List<byte[]> arguments) throws IOException;
+    }
+
+    public record StatusReply(String message) {}
+
+    public record ErrorReply(String message) {}
+
+    public static final class Client implements Closeable {
+
+        private final Socket socket;
+        private final InputStream input;
+        private final OutputStream output;
+        private int subscriptions;
+        private boolean closing;
+
+        Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.input = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            this.output = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        }
+
+        /**
+         * Writes an out-of-band reply, such as a pub/sub message, and flushes it right away.
+         */
+        public void deliver(Object reply) throws IOException {
+            write(reply, true);
+        }
+
+        synchronized void write(Object reply, boolean flush) throws IOException {
+            encode(reply);
+            if (flush) {
+                output.flush();
+            }
+        }
+
+        synchronized void flush() throws IOException {
+            output.flush();
+        }
+
+        private void encode(Object reply) throws IOException {
+            if (reply == null) {
+                output.write("$-1\r\n".getBytes(ISO_8859_1));
+            } else if (reply instanceof StatusReply status) {
+                output.write(('+' + status.message() + "\r\n").getBytes(ISO_8859_1));
+            } else if (reply instanceof ErrorReply error) {
+                output.write(('-' + error.message() + "\r\n").getBytes(ISO_8859_1));
+            } else if (reply instanceof Long number) {
+                output.write((":" + number + "\r\n").getBytes(ISO_8859_1));
+            } else if (reply instanceof String string) {
+                encode(string.getBytes(ISO_8859_1));
+            } else if (reply instanceof byte[] bytes) {
+                output.write(('$' + Integer.toString(bytes.length) + "\r\n").getBytes(ISO_8859_1));
+                output.write(bytes);
+                output.write('\r');
+                output.write('\n');
+            } else if (reply instanceof List<?> list) {
+                output.write(('*' + Integer.toString(list.size()) + "\r\n").getBytes(ISO_8859_1));
+                for (Object element : list) {
+                    encode(element);
+                }
+            } else {
+                throw new IllegalArgumentException("Unsupported reply " + reply.getClass());
+            }
+        }
+
+        List<byte[]> readCommand() throws IOException {
+            int type = input.read();
+            if (type == -1) {
+                throw new EOFException();
+            }
+
+            if (type != '*') {
+                // inline command, e.g. sent by hand through telnet
+                String line = (char) type + readLine();
+                List<byte[]> arguments = new ArrayList<>();
+                for (String argument : line.trim().split("\\s+")) {
+                    if (!argument.isEmpty()) {
+                        arguments.add(argument.getBytes(ISO_8859_1));
+                    }
+                }
+                return arguments;
+            }
+
+            int count = Integer.parseInt(readLine());
+            List<byte[]> arguments = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                if (input.read() != '$') {
+                    throw new IOException("Protocol error, expected bulk string.");
+                }
+
+                byte[] argument = input.readNBytes(Integer.parseInt(readLine()));
+                if (input.read() != '\r' || input.read() != '\n') {
+                    throw new IOException("Protocol error, expected CRLF.");
+                }
+                arguments.add(argument);
+            }
+            return arguments;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int current;
+            while ((current = input.read()) != '\r') {
+                if (current == -1) {
+                    throw new EOFException();
+                }
+                line.append((char) current);
+            }
+            input.read();
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import io.github.rift.cache.CacheProvider;
 import io.github.rift.serializer.Packet;
 import io.github.rift.lock.DistributedLock;
 import io.github.rift.map.CachedMap;
+import io.github.rift.map.CachedMapOptions;
 import io.github.rift.map.CachedMapUpdate;
 import io.github.rift.map.RiftMap;
 import io.github.wisp.subscription.Subscriber;
@@ -22,15 +23,30 @@ public interface RiftClient<S extends Serializable, P extends Packet> extends Cl
 
     void publish(@NotNull String topic, @NotNull P packet);
 
+    @NotNull
+    CompletableFuture<Void> publishAsync(@NotNull String topic, @NotNull P packet);
+
     <R extends P> @NotNull CompletableFuture<R> request(@NotNull String topic, @NotNull P request);
 
     void subscribe(@NotNull Subscriber subscriber);
 
     <F, V extends S> @NotNull RiftMap<S, F, V> getMap(@NotNull String key);
 
+    /**
+     * Returns a map spread across {@code partitions} separate hashes, for maps too large to be kept
+     * under a single key. All users of a map must agree on its number of partitions.
+     */
+    <F, V extends S> @NotNull RiftMap<S, F, V> getMap(@NotNull String key, int partitions);
+
     <U extends CachedMapUpdate, F, V extends S> CachedMap<S, U, F, V> getCachedMap(
             String key, CacheProvider<F, V> cacheProvider, BiFunction<String, String, U> updateFactory);
 
+    <U extends CachedMapUpdate, F, V extends S> CachedMap<S, U, F, V> getCachedMap(
+            String key,
+            CacheProvider<F, V> cacheProvider,
+            BiFunction<String, String, U> updateFactory,
+            CachedMapOptions options);
+
     @NotNull
     DistributedLock getLock(@NotNull String key, int tries);
 
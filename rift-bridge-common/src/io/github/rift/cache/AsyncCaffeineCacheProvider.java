@@ -7,6 +7,7 @@ import static java.util.stream.Collectors.toList;
 
 import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public class AsyncCaffeineCacheProvider<K, V> implements CacheProvider<K, V> {
@@ -35,11 +36,21 @@ public class AsyncCaffeineCacheProvider<K, V> implements CacheProvider<K, V> {
         cache.put(key, completedFuture(value));
     }
 
+    @Override
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        cache.synchronous().putAll(entries);
+    }
+
     @Override
     public void remove(K key) {
         cache.synchronous().invalidate(key);
     }
 
+    @Override
+    public void removeAll(Iterable<? extends K> keys) {
+        cache.synchronous().invalidateAll(keys);
+    }
+
     @Override
     public void clear() {
         cache.synchronous().invalidateAll();
@@ -1,5 +1,7 @@
 package io.github.rift.cache;
 
+import java.util.Map;
+
 public interface CacheProvider<K, V> {
 
     interface Entry<K, V> {
@@ -25,8 +27,16 @@ public interface CacheProvider<K, V> {
 
     void put(K key, V value);
 
+    default void putAll(Map<? extends K, ? extends V> entries) {
+        entries.forEach(this::put);
+    }
+
     void remove(K key);
 
+    default void removeAll(Iterable<? extends K> keys) {
+        keys.forEach(this::remove);
+    }
+
     void clear();
 
     boolean containsKey(K key);
@@ -6,6 +6,7 @@ import static java.util.stream.Collectors.toList;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Map;
 
 public class CaffeineCacheProvider<K, V> implements CacheProvider<K, V> {
 
@@ -29,11 +30,21 @@ public class CaffeineCacheProvider<K, V> implements CacheProvider<K, V> {
         cache.put(key, value);
     }
 
+    @Override
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        cache.putAll(entries);
+    }
+
     @Override
     public void remove(K key) {
         cache.invalidate(key);
     }
 
+    @Override
+    public void removeAll(Iterable<? extends K> keys) {
+        cache.invalidateAll(keys);
+    }
+
     @Override
     public void clear() {
         cache.invalidateAll();
@@ -21,6 +21,11 @@ public class DefaultCacheProvider<K, V> implements CacheProvider<K, V> {
         cache.put(key, value);
     }
 
+    @Override
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        cache.putAll(entries);
+    }
+
     @Override
     public void remove(K key) {
         cache.remove(key);
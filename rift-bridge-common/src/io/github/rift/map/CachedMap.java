@@ -1,19 +1,58 @@
 package io.github.rift.map;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public interface CachedMap<S extends Serializable, P extends CachedMapUpdate, F, V extends S> {
 
     void set(F field, V value);
 
+    CompletableFuture<Void> setAsync(F field, V value);
+
+    void set(F field, V value, Duration ttl);
+
+    CompletableFuture<Void> setAsync(F field, V value, Duration ttl);
+
     V get(F field);
 
     void del(F field);
 
+    CompletableFuture<Void> delAsync(F field);
+
+    boolean putIfAbsent(F field, V value);
+
+    CompletableFuture<Boolean> putIfAbsentAsync(F field, V value);
+
+    boolean compareAndSet(F field, V expectedValue, V newValue);
+
+    CompletableFuture<Boolean> compareAndSetAsync(F field, V expectedValue, V newValue);
+
+    V computeIfAbsent(F field, Supplier<? extends V> defaultValue);
+
+    CompletableFuture<V> computeIfAbsentAsync(F field, Supplier<? extends V> defaultValue);
+
+    Map<F, V> getAll(Collection<F> fields);
+
+    void setAll(Map<F, V> entries);
+
+    CompletableFuture<Void> setAllAsync(Map<F, V> entries);
+
+    void delAll(Collection<F> fields);
+
+    CompletableFuture<Void> delAllAsync(Collection<F> fields);
+
     Iterable<F> keys();
 
     Stream<V> values();
 
+    Stream<V> values(CachedMapOptions.ReadConsistency consistency);
+
     long size();
+
+    long size(CachedMapOptions.ReadConsistency consistency);
 }
@@ -0,0 +1,249 @@
+package io.github.rift.map;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Options of a {@link CachedMap}.
+ *
+ * @param loading             How the local cache gets populated
+ * @param warmSize            The maximal number of entries loaded up front in {@link Loading#READ_THROUGH} mode
+ * @param broadcast           What updates tell other instances; all instances of a map must use the same
+ * @param changeLogSize       The number of changed fields the map keeps in Redis for instances catching up on
+ *                            missed updates, or zero to keep no change log; all instances of a map must use
+ *                            the same
+ * @param writeBehindInterval How often writes buffered locally are flushed to Redis, or zero to write through
+ * @param snapshot            Where and how often the local cache is saved for warm restarts, or {@code null}
+ *                            to keep no snapshot
+ * @param readConsistency     Where {@link CachedMap#values()} and {@link CachedMap#size()} read from
+ * @param updateBatchInterval How often updates received from other instances are applied in bulk, or zero to
+ *                            apply each one as it arrives
+ */
+public record CachedMapOptions(
+        @NotNull Loading loading,
+        int warmSize,
+        @NotNull Broadcast broadcast,
+        int changeLogSize,
+        @NotNull Duration writeBehindInterval,
+        @Nullable Snapshot snapshot,
+        @NotNull ReadConsistency readConsistency,
+        @NotNull Duration updateBatchInterval) {
+
+    public CachedMapOptions {
+        if (warmSize < 0) {
+            throw new IllegalArgumentException("Warm size must not be negative, got %d.".formatted(warmSize));
+        }
+        if (changeLogSize < 0) {
+            throw new IllegalArgumentException(
+                    "Change log size must not be negative, got %d.".formatted(changeLogSize));
+        }
+        if (writeBehindInterval.isNegative()) {
+            throw new IllegalArgumentException(
+                    "Write-behind interval must not be negative, got %s.".formatted(writeBehindInterval));
+        }
+        if (updateBatchInterval.isNegative()) {
+            throw new IllegalArgumentException(
+                    "Update batch interval must not be negative, got %s.".formatted(updateBatchInterval));
+        }
+    }
+
+    /**
+     * Returns the options of a map, which keeps every entry in its local cache.
+     */
+    public static @NotNull CachedMapOptions defaults() {
+        return new CachedMapOptions(
+                Loading.EAGER,
+                0,
+                Broadcast.VALUES,
+                0,
+                Duration.ZERO,
+                null,
+                ReadConsistency.REMOTE,
+                Duration.ZERO);
+    }
+
+    /**
+     * Returns the options of a map, which starts with at most {@code warmSize} entries and loads the
+     * others on demand.
+     */
+    public static @NotNull CachedMapOptions readThrough(int warmSize) {
+        return new CachedMapOptions(
+                Loading.READ_THROUGH,
+                warmSize,
+                Broadcast.VALUES,
+                0,
+                Duration.ZERO,
+                null,
+                ReadConsistency.REMOTE,
+                Duration.ZERO);
+    }
+
+    public @NotNull CachedMapOptions withBroadcast(@NotNull Broadcast broadcast) {
+        return new CachedMapOptions(
+                loading,
+                warmSize,
+                broadcast,
+                changeLogSize,
+                writeBehindInterval,
+                snapshot,
+                readConsistency,
+                updateBatchInterval);
+    }
+
+    /**
+     * Returns these options with a change log of {@code changeLogSize} fields. Updates then carry the
+     * version of the map, and an instance noticing a gap in the versions it received reloads only the
+     * fields changed meanwhile, unless the log has been trimmed past its last version.
+     */
+    public @NotNull CachedMapOptions withChangeLog(int changeLogSize) {
+        return new CachedMapOptions(
+                loading,
+                warmSize,
+                broadcast,
+                changeLogSize,
+                writeBehindInterval,
+                snapshot,
+                readConsistency,
+                updateBatchInterval);
+    }
+
+    /**
+     * Returns these options with writes applied to the local cache right away, but sent to Redis only
+     * every {@code flushInterval}. Repeated writes of a field in between are coalesced into one, and
+     * each flush is broadcast as a single update. Until then, other instances and whole-map reads
+     * from Redis like {@link CachedMap#values()} do not see the writes. Closing the map flushes it.
+     */
+    public @NotNull CachedMapOptions withWriteBehind(@NotNull Duration flushInterval) {
+        return new CachedMapOptions(
+                loading,
+                warmSize,
+                broadcast,
+                changeLogSize,
+                flushInterval,
+                snapshot,
+                readConsistency,
+                updateBatchInterval);
+    }
+
+    public boolean writeBehind() {
+        return !writeBehindInterval.isZero();
+    }
+
+    /**
+     * Returns these options with the local cache saved to {@code path} every {@code interval} if it
+     * changed, and on close. A restarting instance restores its cache from the snapshot, deserializes
+     * entries only once they are read, and fetches from Redis only the fields changed since, unless
+     * the change log has been trimmed past the snapshot. Requires a change log.
+     */
+    public @NotNull CachedMapOptions withSnapshot(@NotNull Path path, @NotNull Duration interval) {
+        return new CachedMapOptions(
+                loading,
+                warmSize,
+                broadcast,
+                changeLogSize,
+                writeBehindInterval,
+                new Snapshot(path, interval),
+                readConsistency,
+                updateBatchInterval);
+    }
+
+    public @NotNull CachedMapOptions withReadConsistency(@NotNull ReadConsistency readConsistency) {
+        return new CachedMapOptions(
+                loading,
+                warmSize,
+                broadcast,
+                changeLogSize,
+                writeBehindInterval,
+                snapshot,
+                readConsistency,
+                updateBatchInterval);
+    }
+
+    /**
+     * Returns these options with updates from other instances queued as they arrive and applied every
+     * {@code interval}. Updates of a field superseded within a batch are skipped, the others are
+     * deserialized, in parallel for large batches, and stored with a single bulk write to the cache
+     * provider. Local writes apply the queued updates first, so they are never overwritten by older
+     * ones, but reads may miss remote changes for up to an interval.
+     */
+    public @NotNull CachedMapOptions withUpdateBatching(@NotNull Duration interval) {
+        return new CachedMapOptions(
+                loading,
+                warmSize,
+                broadcast,
+                changeLogSize,
+                writeBehindInterval,
+                snapshot,
+                readConsistency,
+                interval);
+    }
+
+    public boolean batchesUpdates() {
+        return !updateBatchInterval.isZero();
+    }
+
+    /**
+     * @param path     The snapshot file, which must not be shared with another map or instance
+     * @param interval How often the snapshot is written if the cache changed
+     */
+    public record Snapshot(@NotNull Path path, @NotNull Duration interval) {
+
+        public Snapshot {
+            if (interval.toMillis() < 1) {
+                throw new IllegalArgumentException(
+                        "Snapshot interval must be at least one millisecond, got %s.".formatted(interval));
+            }
+        }
+    }
+
+    public enum Loading {
+        /**
+         * Loads the whole map into the local cache on creation and answers reads from the local cache
+         * only, so the cache provider must never evict entries.
+         */
+        EAGER,
+        /**
+         * Loads missing entries from the map on demand, so that the cache provider may be bounded and
+         * evict cold entries. Concurrent misses of the same field share a single load, and {@link
+         * CachedMap#keys()} only lists the fields currently cached.
+         */
+        READ_THROUGH
+    }
+
+    public enum Broadcast {
+        /**
+         * Updates carry the serialized value, which every instance applies to its local cache.
+         */
+        VALUES,
+        /**
+         * Updates carry the field only. Instances evict it from their local cache and load it again
+         * on their next read, so only instances reading a field pay for fetching and deserializing
+         * it. Misses are loaded from the map whatever the {@link Loading loading} mode.
+         */
+        INVALIDATIONS
+    }
+
+    /**
+     * Where aggregate reads like {@link CachedMap#values()} and {@link CachedMap#size()} are answered
+     * from. Single-field reads always go through the local cache.
+     */
+    public enum ReadConsistency {
+        /**
+         * Reads the local cache only, which may lag behind Redis and, unless the whole map is cached,
+         * only holds part of it.
+         */
+        LOCAL,
+        /**
+         * Reads the whole map from Redis.
+         */
+        REMOTE,
+        /**
+         * Reads the local cache if it holds the whole map and has applied every change Redis knows of,
+         * which takes a single version lookup, and reads Redis otherwise. Requires a change log to
+         * compare versions; maps without one always read Redis.
+         */
+        VERIFIED
+    }
+}
@@ -1,10 +1,54 @@
 package io.github.rift.map;
 
 import io.github.rift.serializer.Packet;
+import java.util.Map;
 
+/**
+ * Packet telling the other instances of a cached map about changed fields.
+ *
+ * <p>The setters are optional. Updates which ignore them still work, but without field expiration,
+ * skipping of echoed updates, detection of missed updates or batches in a single packet.
+ */
 public interface CachedMapUpdate extends Packet {
 
     String getKey();
 
     String getValue();
+
+    /**
+     * Returns the epoch millisecond at which the updated field expires, or zero if it does not.
+     */
+    default long getExpiresAt() {
+        return 0L;
+    }
+
+    default void setExpiresAt(long expiresAt) {}
+
+    /**
+     * Returns the cached map instance which published the update, or {@code null} if unknown.
+     */
+    default String getOrigin() {
+        return null;
+    }
+
+    default void setOrigin(String origin) {}
+
+    /**
+     * Returns the version of the map including the update, or zero if the map keeps no change log.
+     */
+    default long getVersion() {
+        return 0L;
+    }
+
+    default void setVersion(long version) {}
+
+    /**
+     * Returns the serialized fields and values of a batch of updates, a {@code null} value standing
+     * for a deletion, or {@code null} if this is a single update described by its key and value.
+     */
+    default Map<String, String> getEntries() {
+        return null;
+    }
+
+    default void setEntries(Map<String, String> entries) {}
 }
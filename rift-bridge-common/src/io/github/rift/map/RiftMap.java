@@ -1,22 +1,104 @@
 package io.github.rift.map;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public interface RiftMap<S extends Serializable, F, V extends S> {
 
     boolean set(F field, V value);
 
+    CompletableFuture<Boolean> setAsync(F field, V value);
+
+    /**
+     * Sets the field and expires it after {@code ttl}. Setting the field again without a TTL makes it
+     * persistent. Once expired, the field is no longer read, claimed, counted or incremented.
+     */
+    boolean set(F field, V value, Duration ttl);
+
+    CompletableFuture<Boolean> setAsync(F field, V value, Duration ttl);
+
+    /**
+     * Returns the epoch millisecond at which each of the fields expires, leaving out fields which are
+     * persistent or absent.
+     */
+    CompletableFuture<Map<F, Long>> expirationsAsync(Collection<F> fields);
+
     V get(F field);
 
+    CompletableFuture<V> getAsync(F field);
+
     boolean del(F field);
 
+    CompletableFuture<Boolean> delAsync(F field);
+
+    /**
+     * Sets the field only if it is not present yet.
+     *
+     * @return whether the value was stored
+     */
+    boolean putIfAbsent(F field, V value);
+
+    CompletableFuture<Boolean> putIfAbsentAsync(F field, V value);
+
+    /**
+     * Atomically replaces the value of the field, if its current value serializes to the same payload
+     * as {@code expectedValue}. A {@code null} expected value stands for an absent field and a {@code
+     * null} new value deletes the field, so claims can be taken and released without a lock.
+     *
+     * @return whether the value was replaced
+     */
+    boolean compareAndSet(F field, V expectedValue, V newValue);
+
+    CompletableFuture<Boolean> compareAndSetAsync(F field, V expectedValue, V newValue);
+
+    /**
+     * Returns the value of the field, storing the value of {@code defaultValue} first if the field is
+     * absent. The supplier is only called on a miss; if another writer stores the field concurrently,
+     * its value wins and is returned.
+     */
+    V computeIfAbsent(F field, Supplier<? extends V> defaultValue);
+
+    CompletableFuture<V> computeIfAbsentAsync(F field, Supplier<? extends V> defaultValue);
+
+    /**
+     * Atomically increments the numeric field by {@code delta}, starting from zero if it is absent.
+     * Counter fields hold plain integers rather than serialized values, so they must only be accessed
+     * through this method; an increment of zero reads the counter.
+     *
+     * @return the value of the counter after the increment
+     */
+    long incrementField(F field, long delta);
+
+    CompletableFuture<Long> incrementFieldAsync(F field, long delta);
+
+    Map<F, V> getAll(Collection<F> fields);
+
+    CompletableFuture<Map<F, V>> getAllAsync(Collection<F> fields);
+
+    boolean setAll(Map<F, V> entries);
+
+    CompletableFuture<Boolean> setAllAsync(Map<F, V> entries);
+
+    long delAll(Collection<F> fields);
+
+    CompletableFuture<Long> delAllAsync(Collection<F> fields);
+
     Stream<F> fields();
 
     Stream<V> values();
 
+    Stream<Map.Entry<F, V>> entryStream();
+
     Map<F, V> entries();
 
+    CompletableFuture<Map<F, V>> entriesAsync();
+
     long size();
+
+    CompletableFuture<Long> sizeAsync();
 }
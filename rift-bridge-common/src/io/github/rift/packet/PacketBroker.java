@@ -11,6 +11,8 @@ public interface PacketBroker<P extends Packet> extends Closeable {
 
     void publish(String topic, P packet);
 
+    CompletableFuture<Void> publishAsync(String topic, P packet);
+
     <R extends P> CompletableFuture<R> request(String topic, P request);
 
     void subscribe(Subscriber subscriber);
@@ -8,6 +8,7 @@ import io.github.rift.RiftClient;
 import io.github.rift.cache.CacheProvider;
 import io.github.rift.lock.DistributedLock;
 import io.github.rift.map.CachedMap;
+import io.github.rift.map.CachedMapOptions;
 import io.github.rift.map.CachedMapUpdate;
 import io.github.rift.map.RiftMap;
 import io.github.rift.packet.PacketBroker;
@@ -15,10 +16,15 @@ import io.github.rift.redis.lock.RedisLock;
 import io.github.rift.redis.map.RedisCachedMap;
 import io.github.rift.redis.map.RedisKeyValue;
 import io.github.rift.redis.map.RedisMap;
+import io.github.rift.redis.map.RedisMapChangeLog;
+import io.github.rift.redis.map.RedisPartitionedMap;
 import io.github.rift.redis.packet.RedisPacketBroker;
+import io.github.rift.redis.packet.RedisPacketDispatcher;
+import io.github.rift.redis.packet.RedisPublishPipeline;
 import io.github.rift.scheduler.Scheduler;
 import io.github.rift.serializer.Packet;
 import io.github.rift.serializer.Serializer;
+import io.github.wisp.Wisp;
 import io.github.wisp.subscription.Subscriber;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.api.StatefulRedisConnection;
@@ -26,7 +32,10 @@ import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.Duration;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import org.jetbrains.annotations.NotNull;
 
@@ -44,8 +53,10 @@ public final class RedisRiftClient<S extends Serializable, P extends Packet> imp
 
     private final RedisKeyValue keyValue;
 
-    private final StatefulRedisConnection<String, String> connection;
-    private final StatefulRedisPubSubConnection<String, String> pubSubConnection;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final StatefulRedisPubSubConnection<String, byte[]> pubSubConnection;
+
+    private final Set<RedisCachedMap<?, ?, ?, ?>> closeableCachedMaps = ConcurrentHashMap.newKeySet();
 
     private RedisRiftClient(
             String identity,
@@ -53,8 +64,8 @@ public final class RedisRiftClient<S extends Serializable, P extends Packet> imp
             Serializer serializer,
             PacketBroker<P> packetBroker,
             RedisKeyValue keyValue,
-            StatefulRedisConnection<String, String> connection,
-            StatefulRedisPubSubConnection<String, String> pubSubConnection) {
+            StatefulRedisConnection<String, byte[]> connection,
+            StatefulRedisPubSubConnection<String, byte[]> pubSubConnection) {
         this.identity = identity;
         this.scheduler = scheduler;
         this.serializer = serializer;
@@ -70,8 +81,8 @@ public final class RedisRiftClient<S extends Serializable, P extends Packet> imp
             Serializer serializer,
             PacketBroker<P> packetBroker,
             RedisKeyValue keyValue,
-            StatefulRedisConnection<String, String> connection,
-            StatefulRedisPubSubConnection<String, String> pubSubConnection) {
+            StatefulRedisConnection<String, byte[]> connection,
+            StatefulRedisPubSubConnection<String, byte[]> pubSubConnection) {
         return new RedisRiftClient<>(
                 identity,
                 scheduler,
@@ -95,8 +106,8 @@ public final class RedisRiftClient<S extends Serializable, P extends Packet> imp
             Serializer serializer,
             Scheduler scheduler,
             RedisClient redisClient) {
-        StatefulRedisConnection<String, String> connection = redisClient.connect();
-        StatefulRedisPubSubConnection<String, String> pubSubConnection = redisClient.connectPubSub();
+        StatefulRedisConnection<String, byte[]> connection = redisClient.connect(RedisRiftCodec.INSTANCE);
+        StatefulRedisPubSubConnection<String, byte[]> pubSubConnection = redisClient.connectPubSub(RedisRiftCodec.INSTANCE);
 
         PacketBroker<P> packetBroker =
                 RedisPacketBroker.create(identity, serializer, requestCleanupInterval, connection, pubSubConnection);
@@ -105,11 +116,89 @@ public final class RedisRiftClient<S extends Serializable, P extends Packet> imp
         return create(identity, scheduler, serializer, packetBroker, keyValue, connection, pubSubConnection);
     }
 
+    public static <S extends Serializable, P extends Packet> RiftClient<S, P> create(
+            String identity,
+            Duration requestCleanupInterval,
+            int publishBatchSize,
+            Duration publishMaxLatency,
+            Serializer serializer,
+            Scheduler scheduler,
+            RedisClient redisClient) {
+        return create(
+                identity,
+                requestCleanupInterval,
+                publishBatchSize,
+                publishMaxLatency,
+                RedisPacketDispatcher.create(),
+                serializer,
+                scheduler,
+                redisClient);
+    }
+
+    /**
+     * Creates a client whose received messages are queued per topic, at most {@code dispatchQueueSize}
+     * each, and handed to subscribers on the given executor instead of the Lettuce I/O thread.
+     */
+    public static <S extends Serializable, P extends Packet> RiftClient<S, P> create(
+            String identity,
+            Duration requestCleanupInterval,
+            int publishBatchSize,
+            Duration publishMaxLatency,
+            Executor dispatchExecutor,
+            int dispatchQueueSize,
+            RedisPacketDispatcher.OverflowPolicy dispatchOverflowPolicy,
+            Serializer serializer,
+            Scheduler scheduler,
+            RedisClient redisClient) {
+        return create(
+                identity,
+                requestCleanupInterval,
+                publishBatchSize,
+                publishMaxLatency,
+                RedisPacketDispatcher.create(dispatchExecutor, dispatchQueueSize, dispatchOverflowPolicy),
+                serializer,
+                scheduler,
+                redisClient);
+    }
+
+    private static <S extends Serializable, P extends Packet> RiftClient<S, P> create(
+            String identity,
+            Duration requestCleanupInterval,
+            int publishBatchSize,
+            Duration publishMaxLatency,
+            RedisPacketDispatcher packetDispatcher,
+            Serializer serializer,
+            Scheduler scheduler,
+            RedisClient redisClient) {
+        StatefulRedisConnection<String, byte[]> connection = redisClient.connect(RedisRiftCodec.INSTANCE);
+        StatefulRedisPubSubConnection<String, byte[]> pubSubConnection = redisClient.connectPubSub(RedisRiftCodec.INSTANCE);
+
+        RedisPublishPipeline publishPipeline =
+                RedisPublishPipeline.create(connection, scheduler, publishBatchSize, publishMaxLatency);
+        PacketBroker<P> packetBroker = RedisPacketBroker.create(
+                Wisp.create(),
+                identity,
+                serializer,
+                requestCleanupInterval,
+                connection,
+                pubSubConnection,
+                publishPipeline,
+                packetDispatcher);
+        RedisKeyValue keyValue = RedisKeyValue.create(connection);
+
+        return create(identity, scheduler, serializer, packetBroker, keyValue, connection, pubSubConnection);
+    }
+
     @Override
     public void publish(@NotNull String topic, @NotNull P packet) {
         packetBroker.publish(topic, packet);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Void> publishAsync(@NotNull String topic, @NotNull P packet) {
+        return packetBroker.publishAsync(topic, packet);
+    }
+
     @Override
     public <R extends P> @NotNull CompletableFuture<R> request(@NotNull String topic, @NotNull P request) {
         return packetBroker.request(topic, request);
@@ -125,12 +214,45 @@ public final class RedisRiftClient<S extends Serializable, P extends Packet> imp
         return RedisMap.create(key, serializer, connection);
     }
 
+    @Override
+    public <F, V extends S> @NotNull RiftMap<S, F, V> getMap(@NotNull String key, int partitions) {
+        if (partitions == 1) {
+            return getMap(key);
+        }
+        return RedisPartitionedMap.create(key, serializer, connection, partitions);
+    }
+
     @Override
     public <U extends CachedMapUpdate, F, V extends S> CachedMap<S, U, F, V> getCachedMap(
             String key,
             CacheProvider<F, V> cacheProvider,
             BiFunction<String, String, U> updateFactory) {
-        return RedisCachedMap.create(key, serializer, getMap(key), cacheProvider, packetBroker, updateFactory);
+        return getCachedMap(key, cacheProvider, updateFactory, CachedMapOptions.defaults());
+    }
+
+    @Override
+    public <U extends CachedMapUpdate, F, V extends S> CachedMap<S, U, F, V> getCachedMap(
+            String key,
+            CacheProvider<F, V> cacheProvider,
+            BiFunction<String, String, U> updateFactory,
+            CachedMapOptions options) {
+        RedisMapChangeLog changeLog = options.changeLogSize() > 0
+                ? RedisMapChangeLog.create(key, connection, options.changeLogSize())
+                : null;
+        RedisCachedMap<S, U, F, V> cachedMap = RedisCachedMap.create(
+                key,
+                serializer,
+                getMap(key),
+                cacheProvider,
+                packetBroker,
+                updateFactory,
+                options,
+                changeLog,
+                scheduler);
+        if (options.writeBehind() || options.snapshot() != null || options.batchesUpdates()) {
+            closeableCachedMaps.add(cachedMap);
+        }
+        return cachedMap;
     }
 
     @Override
@@ -150,6 +272,8 @@ public final class RedisRiftClient<S extends Serializable, P extends Packet> imp
 
     @Override
     public void close() throws IOException {
+        // Buffered writes and final snapshots still need the connections.
+        closeableCachedMaps.forEach(RedisCachedMap::close);
         packetBroker.close();
         connection.close();
         pubSubConnection.close();
@@ -0,0 +1,17 @@
+package io.github.rift.redis;
+
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+
+/**
+ * Codec of every connection used by the Redis bridge: keys, channels and hash fields are UTF-8
+ * strings, while values and messages are raw bytes produced by a {@link
+ * io.github.rift.serializer.BinarySerializer}.
+ */
+public final class RedisRiftCodec {
+
+    public static final RedisCodec<String, byte[]> INSTANCE = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+    private RedisRiftCodec() {}
+}
@@ -0,0 +1,143 @@
+package io.github.rift.redis.map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local file holding the serialized entries of a cached map and the version of the map they reflect.
+ *
+ * <p>The file is memory-mapped. Reading it only indexes the entries; their values are copied out of
+ * the mapping and deserialized by the caller once they are needed. Snapshots are written to a
+ * temporary file which then replaces the previous snapshot, so a crash never leaves a partial one.
+ *
+ * <p>Layout: magic, format, map key, map version and entry count, followed by the entries as field,
+ * expiration deadline (epoch milliseconds, zero if none) and value. Strings are UTF-8 prefixed by
+ * their length in bytes.
+ */
+final class CachedMapSnapshot {
+
+    private static final int MAGIC = 0x52494654;
+    private static final int FORMAT = 1;
+
+    private final ByteBuffer buffer;
+    private final long version;
+    private final Map<String, Slot> slots;
+
+    private CachedMapSnapshot(ByteBuffer buffer, long version, Map<String, Slot> slots) {
+        this.buffer = buffer;
+        this.version = version;
+        this.slots = slots;
+    }
+
+    /**
+     * Maps and indexes the snapshot of the given map.
+     *
+     * @return the snapshot, or {@code null} if there is none or it has been written for another map or
+     *     in another format
+     */
+    static CachedMapSnapshot read(Path path, String key) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException exception) {
+            return null;
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT || !readString(buffer).equals(key)) {
+                return null;
+            }
+
+            long version = buffer.getLong();
+            int entryCount = buffer.getInt();
+            Map<String, Slot> slots = new HashMap<>(entryCount * 4 / 3 + 1);
+            for (int index = 0; index < entryCount; index++) {
+                String field = readString(buffer);
+                long expiresAt = buffer.getLong();
+                int length = buffer.getInt();
+                slots.put(field, new Slot(buffer.position(), length, expiresAt));
+                buffer.position(buffer.position() + length);
+            }
+            return new CachedMapSnapshot(buffer, version, slots);
+        } catch (RuntimeException exception) {
+            throw new IOException("Snapshot %s is corrupt.".formatted(path), exception);
+        }
+    }
+
+    static void write(Path path, String key, long version, Collection<Entry> entries) throws IOException {
+        byte[] rawKey = key.getBytes(UTF_8);
+        long size = 4 + 4 + 4 + rawKey.length + 8 + 4;
+        for (Entry entry : entries) {
+            size += 4 + entry.field().length + 8 + 4 + entry.value().length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of %s would exceed 2 GiB.".formatted(key));
+        }
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(
+                temporaryPath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(FORMAT).putInt(rawKey.length).put(rawKey);
+            buffer.putLong(version).putInt(entries.size());
+            for (Entry entry : entries) {
+                buffer.putInt(entry.field().length).put(entry.field());
+                buffer.putLong(entry.expiresAt());
+                buffer.putInt(entry.value().length).put(entry.value());
+            }
+            buffer.force();
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * Returns the slots of the entries by serialized field.
+     */
+    Map<String, Slot> slots() {
+        return slots;
+    }
+
+    byte[] value(Slot slot) {
+        byte[] value = new byte[slot.length()];
+        buffer.get(slot.offset(), value);
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * @param field     The serialized field, UTF-8 encoded
+     * @param expiresAt The epoch millisecond at which the field expires, or zero if it does not
+     * @param value     The serialized value, UTF-8 encoded
+     */
+    record Entry(byte[] field, long expiresAt, byte[] value) {}
+
+    /**
+     * Position of a value in the mapped snapshot.
+     */
+    record Slot(int offset, int length, long expiresAt) {}
+}
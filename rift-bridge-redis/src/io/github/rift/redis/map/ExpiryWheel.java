@@ -0,0 +1,145 @@
+package io.github.rift.redis.map;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel tracking the expiry deadlines (epoch milliseconds) of near-cache entries.
+ *
+ * <p>Keys are hashed into buckets by the tick of their deadline, so expiring entries only visits the
+ * buckets of the ticks elapsed since the previous advance instead of every entry. The wheel has no
+ * thread of its own: it is advanced by the operations of its map, and deadlines further away than
+ * one revolution simply stay in their bucket for another round.
+ */
+final class ExpiryWheel<K> {
+
+    private static final long TICK_MILLIS = 64L;
+    private static final int BUCKET_COUNT = 1024;
+    private static final int BUCKET_MASK = BUCKET_COUNT - 1;
+
+    private final Consumer<K> expiryConsumer;
+    private final Map<K, Long> deadlines = new ConcurrentHashMap<>();
+    private final Set<K>[] buckets;
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    private volatile long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ExpiryWheel(Consumer<K> expiryConsumer) {
+        this.expiryConsumer = expiryConsumer;
+        this.buckets = new Set[BUCKET_COUNT];
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            buckets[index] = ConcurrentHashMap.newKeySet();
+        }
+        this.currentTick = System.currentTimeMillis() / TICK_MILLIS - 1;
+    }
+
+    boolean isEmpty() {
+        return deadlines.isEmpty();
+    }
+
+    boolean isExpired(K key, long now) {
+        Long deadline = deadlines.get(key);
+        return deadline != null && deadline <= now;
+    }
+
+    /**
+     * Returns the deadline of the key, or zero if it does not expire.
+     */
+    long deadline(K key) {
+        Long deadline = deadlines.get(key);
+        return deadline == null ? 0L : deadline;
+    }
+
+    /**
+     * Applies {@code update} to the cache and records the deadline of the key atomically, so that an
+     * expiry running concurrently never removes the updated entry.
+     */
+    void schedule(K key, long deadline, Runnable update) {
+        deadlines.compute(key, (ignored, previousDeadline) -> {
+            update.run();
+            return deadline;
+        });
+        buckets[bucketOf(Math.max(deadline / TICK_MILLIS, currentTick + 1))].add(key);
+    }
+
+    /**
+     * Applies {@code update} to the cache and forgets the deadline of the key, if any. Stale bucket
+     * entries are dropped lazily once their bucket is visited.
+     */
+    void cancel(K key, Runnable update) {
+        deadlines.compute(key, (ignored, previousDeadline) -> {
+            update.run();
+            return null;
+        });
+    }
+
+    /**
+     * Expires the keys of all ticks which have fully elapsed by {@code now}. Only one thread advances
+     * the wheel at a time; others return immediately instead of waiting.
+     */
+    void advance(long now) {
+        long lastTick = now / TICK_MILLIS - 1;
+        if (lastTick <= currentTick || !advanceLock.tryLock()) {
+            return;
+        }
+
+        try {
+            long firstTick = Math.max(currentTick + 1, lastTick - BUCKET_MASK);
+            for (long tick = firstTick; tick <= lastTick; tick++) {
+                expireBucket(tick);
+            }
+            currentTick = lastTick;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    private void expireBucket(long tick) {
+        int index = bucketOf(tick);
+        Set<K> bucket = buckets[index];
+        for (K key : bucket) {
+            Long deadline = deadlines.get(key);
+            if (deadline == null) {
+                bucket.remove(key);
+                Long scheduledDeadline = deadlines.get(key);
+                if (scheduledDeadline != null) {
+                    buckets[bucketOf(Math.max(scheduledDeadline / TICK_MILLIS, tick + 1))].add(key);
+                }
+                continue;
+            }
+
+            long deadlineTick = deadline / TICK_MILLIS;
+            if (deadlineTick <= tick) {
+                bucket.remove(key);
+                Long rescheduledDeadline = deadlines.computeIfPresent(key, (expiredKey, currentDeadline) -> {
+                    if (!currentDeadline.equals(deadline)) {
+                        return currentDeadline;
+                    }
+
+                    expiryConsumer.accept(expiredKey);
+                    return null;
+                });
+
+                // Rescheduled concurrently, possibly after its bucket entry has just been removed.
+                if (rescheduledDeadline != null) {
+                    buckets[bucketOf(Math.max(rescheduledDeadline / TICK_MILLIS, tick + 1))].add(key);
+                }
+                continue;
+            }
+
+            // The key was rescheduled since it has been added to this bucket.
+            int deadlineIndex = bucketOf(deadlineTick);
+            if (deadlineIndex != index) {
+                bucket.remove(key);
+                buckets[deadlineIndex].add(key);
+            }
+        }
+    }
+
+    private static int bucketOf(long tick) {
+        return (int) (tick & BUCKET_MASK);
+    }
+}
@@ -1,27 +1,95 @@
 package io.github.rift.redis.map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.logging.Level.WARNING;
+
 import io.github.rift.cache.CacheProvider;
 import io.github.rift.map.CachedMap;
+import io.github.rift.map.CachedMapOptions;
 import io.github.rift.map.CachedMapUpdate;
 import io.github.rift.map.RiftMap;
 import io.github.rift.packet.PacketBroker;
+import io.github.rift.scheduler.ScheduledTask;
+import io.github.rift.scheduler.Scheduler;
 import io.github.rift.serializer.Serializer;
 import io.github.wisp.subscription.Subscribe;
 import io.github.wisp.subscription.Subscriber;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
 public final class RedisCachedMap<S extends Serializable, P extends CachedMapUpdate, F, V extends S>
-        implements Subscriber, CachedMap<S, P, F, V> {
+        implements Subscriber, CachedMap<S, P, F, V>, Closeable {
+
+    private static final Logger logger = Logger.getLogger(RedisCachedMap.class.getSimpleName());
+    private static final AtomicLong INSTANCE_COUNTER = new AtomicLong();
+    private static final int MAX_QUEUED_UPDATES = 4096;
+    private static final int PARALLEL_DESERIALIZATION_THRESHOLD = 256;
 
+    private final String key;
     private final RiftMap<S, F, V> map;
     private final PacketBroker packetBroker;
     private final String mapUpdatesTopic;
     private final Serializer serializer;
     private final CacheProvider<F, V> cacheProvider;
     private final BiFunction<String, String, P> updateFactory;
+    private final String origin;
+    private final ExpiryWheel<F> expiryWheel;
+    private final boolean readThrough;
+    private final boolean invalidations;
+    private final Map<F, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+    private final Map<F, Integer> writesInFlight = new ConcurrentHashMap<>();
+    private final RedisMapChangeLog changeLog;
+    private final ReentrantLock versionLock = new ReentrantLock();
+    private long lastVersion;
+    private final ScheduledTask flushTask;
+    private final Map<F, Write<V>> pendingWrites = new ConcurrentHashMap<>();
+    private final Map<F, Write<V>> flushingWrites = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile CompletableFuture<Void> nextFlush = new CompletableFuture<>();
+    private CompletableFuture<Void> lastFlush = completedFuture(null);
+    private final CachedMapOptions.Snapshot snapshot;
+    private final CachedMapOptions.ReadConsistency readConsistency;
+    private final ScheduledTask updateTask;
+    private final BlockingQueue<P> receivedUpdates;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final ScheduledTask snapshotTask;
+    private final Map<F, CachedMapSnapshot.Slot> restoredSlots = new ConcurrentHashMap<>();
+    private volatile CachedMapSnapshot restoredSnapshot;
+    // The version up to which every change is reflected by the cache; a snapshot written now is that recent.
+    private final AtomicLong appliedVersion = new AtomicLong();
+    private final AtomicInteger resyncs = new AtomicInteger();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private long snapshotVersion = -1L;
 
     private RedisCachedMap(
             String key,
@@ -29,16 +97,54 @@ public final class RedisCachedMap<S extends Serializable, P extends CachedMapUpd
             RiftMap<S, F, V> map,
             CacheProvider<F, V> cacheProvider,
             PacketBroker<?> packetBroker,
-            BiFunction<String, String, P> updateFactory) {
+            BiFunction<String, String, P> updateFactory,
+            CachedMapOptions options,
+            RedisMapChangeLog changeLog,
+            Scheduler scheduler) {
+        this.key = key;
         this.mapUpdatesTopic = "map-updates-" + key;
         this.packetBroker = packetBroker;
         this.map = map;
         this.serializer = serializer;
         this.cacheProvider = cacheProvider;
         this.updateFactory = updateFactory;
+        // Qualified by an instance number, so that cached maps sharing a broker still see each other.
+        this.origin = packetBroker.identity() + '#' + INSTANCE_COUNTER.incrementAndGet();
+        this.expiryWheel = new ExpiryWheel<>(cacheProvider::remove);
+        this.invalidations = options.broadcast() == CachedMapOptions.Broadcast.INVALIDATIONS;
+        this.readThrough = options.loading() == CachedMapOptions.Loading.READ_THROUGH || invalidations;
+        this.changeLog = changeLog;
+        this.snapshot = options.snapshot();
+        this.readConsistency = options.readConsistency();
+        this.receivedUpdates = options.batchesUpdates() ? new ArrayBlockingQueue<>(MAX_QUEUED_UPDATES) : null;
         packetBroker.subscribe(this);
 
-        this.map.entries().forEach(cacheProvider::put);
+        // Read before the entries, so that changes racing with the initial load are caught up on.
+        long initialVersion = changeLog == null ? 0L : await(changeLog.version());
+        this.lastVersion = initialVersion;
+
+        if (snapshot != null && restoreSnapshot(initialVersion)) {
+            logger.info("Restored %d entries of %s from snapshot %s.".formatted(
+                    restoredSlots.size(), key, snapshot.path()));
+        } else if (options.loading() == CachedMapOptions.Loading.EAGER) {
+            cacheLoaded(this.map.entries());
+        } else if (options.warmSize() > 0) {
+            Map<F, V> entries = new HashMap<>();
+            try (Stream<Map.Entry<F, V>> entryStream = this.map.entryStream().limit(options.warmSize())) {
+                entryStream.forEach(entry -> entries.put(entry.getKey(), entry.getValue()));
+            }
+            cacheLoaded(entries);
+        }
+
+        // Updates applied during the initial load do not make it complete.
+        this.appliedVersion.set(initialVersion);
+        this.flushTask = options.writeBehind()
+                ? scheduler.schedule(this::flushAsync, options.writeBehindInterval())
+                : null;
+        this.snapshotTask = snapshot == null ? null : scheduler.schedule(this::writeSnapshot, snapshot.interval());
+        this.updateTask = options.batchesUpdates()
+                ? scheduler.schedule(this::applyReceivedUpdates, options.updateBatchInterval())
+                : null;
     }
 
     public static <S extends Serializable, P extends CachedMapUpdate, F, V extends S> RedisCachedMap<S, P, F, V> create(
@@ -48,16 +154,116 @@ public final class RedisCachedMap<S extends Serializable, P extends CachedMapUpd
             CacheProvider<F, V> cacheProvider,
             PacketBroker<?> packetBroker,
             BiFunction<String, String, P> updateFactory) {
-        return new RedisCachedMap<>(key, serializer, map, cacheProvider, packetBroker, updateFactory);
+        return create(key, serializer, map, cacheProvider, packetBroker, updateFactory, CachedMapOptions.defaults());
+    }
+
+    public static <S extends Serializable, P extends CachedMapUpdate, F, V extends S> RedisCachedMap<S, P, F, V> create(
+            String key,
+            Serializer serializer,
+            RiftMap<S, F, V> map,
+            CacheProvider<F, V> cacheProvider,
+            PacketBroker<?> packetBroker,
+            BiFunction<String, String, P> updateFactory,
+            CachedMapOptions options) {
+        return create(key, serializer, map, cacheProvider, packetBroker, updateFactory, options, null);
+    }
+
+    /**
+     * Creates a cached map versioning its updates with {@code changeLog}, which the options must
+     * enable, so that missed updates are detected and caught up on.
+     */
+    public static <S extends Serializable, P extends CachedMapUpdate, F, V extends S> RedisCachedMap<S, P, F, V> create(
+            String key,
+            Serializer serializer,
+            RiftMap<S, F, V> map,
+            CacheProvider<F, V> cacheProvider,
+            PacketBroker<?> packetBroker,
+            BiFunction<String, String, P> updateFactory,
+            CachedMapOptions options,
+            RedisMapChangeLog changeLog) {
+        return create(key, serializer, map, cacheProvider, packetBroker, updateFactory, options, changeLog, null);
+    }
+
+    /**
+     * Creates a cached map whose buffered writes, snapshots and received updates, if the options
+     * enable them, are flushed, written and applied by {@code scheduler}.
+     */
+    public static <S extends Serializable, P extends CachedMapUpdate, F, V extends S> RedisCachedMap<S, P, F, V> create(
+            String key,
+            Serializer serializer,
+            RiftMap<S, F, V> map,
+            CacheProvider<F, V> cacheProvider,
+            PacketBroker<?> packetBroker,
+            BiFunction<String, String, P> updateFactory,
+            CachedMapOptions options,
+            RedisMapChangeLog changeLog,
+            Scheduler scheduler) {
+        if ((options.changeLogSize() > 0) != (changeLog != null)) {
+            throw new IllegalArgumentException(
+                    "Change log size is %d, but a change log is %s.".formatted(
+                            options.changeLogSize(), changeLog == null ? "missing" : "given"));
+        }
+        if (options.snapshot() != null && changeLog == null) {
+            throw new IllegalArgumentException("Snapshots require a change log to catch up from.");
+        }
+        if ((options.writeBehind() || options.snapshot() != null || options.batchesUpdates()) && scheduler == null) {
+            throw new IllegalArgumentException("Write-behind, snapshots and update batching require a scheduler.");
+        }
+        return new RedisCachedMap<>(
+                key, serializer, map, cacheProvider, packetBroker, updateFactory, options, changeLog, scheduler);
     }
 
     @Override
     public void set(F field, V value) {
-        cacheProvider.put(field, value);
-        map.set(field, value);
-        packetBroker.publish(
-                mapUpdatesTopic,
-                updateFactory.apply(serializer.serializeRaw(field), serializer.serialize(value)));
+        if (flushTask != null) {
+            writeBehind(field, value);
+            return;
+        }
+
+        await(writing(List.of(field), () -> {
+            cachePut(field, value, 0L);
+            return map.setAsync(field, value);
+        }));
+        publishUpdate(field, value);
+    }
+
+    @Override
+    public CompletableFuture<Void> setAsync(F field, V value) {
+        if (flushTask != null) {
+            return writeBehind(field, value);
+        }
+
+        return writing(List.of(field), () -> {
+                    cachePut(field, value, 0L);
+                    return map.setAsync(field, value);
+                })
+                .thenCompose(ignored -> publishUpdateAsync(field, value));
+    }
+
+    @Override
+    public void set(F field, V value, Duration ttl) {
+        await(setAsync(field, value, ttl));
+    }
+
+    /**
+     * Expires the field locally on the same deadline as in Redis, and hands the deadline to other
+     * instances along with the update.
+     */
+    @Override
+    public CompletableFuture<Void> setAsync(F field, V value, Duration ttl) {
+        if (ttl == null) {
+            return setAsync(field, value);
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        return flushed().thenCompose(ignored -> map.setAsync(field, value, ttl)).thenCompose(stored -> {
+            if (!stored) {
+                return completedFuture(null);
+            }
+
+            cachePut(field, value, expiresAt);
+            return publishAsync(update(field, value, expiresAt));
+        });
     }
 
     @Override
@@ -66,29 +272,724 @@ public final class RedisCachedMap<S extends Serializable, P extends CachedMapUpd
             return null;
         }
 
-        return cacheProvider.get(field);
+        V value = cachedValue(field);
+        if (value != null || !readThrough) {
+            return value;
+        }
+
+        Write<V> write = localWrite(field);
+        if (write != null) {
+            return write.value();
+        }
+        return await(load(List.of(field)).get(field));
     }
 
     @Override
     public void del(F field) {
+        if (flushTask != null) {
+            writeBehind(field, null);
+            return;
+        }
+
         map.del(field);
-        cacheProvider.remove(field);
-        packetBroker.publish(mapUpdatesTopic, updateFactory.apply(serializer.serializeRaw(field), null));
+        cacheRemove(field);
+        publishUpdate(field, null);
+    }
+
+    @Override
+    public CompletableFuture<Void> delAsync(F field) {
+        if (flushTask != null) {
+            return writeBehind(field, null);
+        }
+
+        return writing(List.of(field), () -> {
+                    cacheRemove(field);
+                    return map.delAsync(field);
+                })
+                .thenCompose(ignored -> publishUpdateAsync(field, null));
+    }
+
+    @Override
+    public boolean putIfAbsent(F field, V value) {
+        return await(putIfAbsentAsync(field, value));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> putIfAbsentAsync(F field, V value) {
+        return flushed().thenCompose(ignored -> map.putIfAbsentAsync(field, value)).thenCompose(stored -> stored
+                ? applyUpdateAsync(field, value).thenApply(ignored -> true)
+                : completedFuture(false));
+    }
+
+    @Override
+    public boolean compareAndSet(F field, V expectedValue, V newValue) {
+        return await(compareAndSetAsync(field, expectedValue, newValue));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> compareAndSetAsync(F field, V expectedValue, V newValue) {
+        return flushed()
+                .thenCompose(ignored -> map.compareAndSetAsync(field, expectedValue, newValue))
+                .thenCompose(replaced -> replaced
+                ? applyUpdateAsync(field, newValue).thenApply(ignored -> true)
+                : completedFuture(false));
+    }
+
+    @Override
+    public V computeIfAbsent(F field, Supplier<? extends V> defaultValue) {
+        return await(computeIfAbsentAsync(field, defaultValue));
+    }
+
+    /**
+     * Answers from the local cache when possible. Otherwise the field is claimed in Redis, and the
+     * value is broadcast only if it is the one computed here, since a concurrent winner has already
+     * broadcast its own.
+     */
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(F field, Supplier<? extends V> defaultValue) {
+        if (field == null) {
+            return completedFuture(null);
+        }
+
+        V cachedValue = cachedValue(field);
+        if (cachedValue != null) {
+            return completedFuture(cachedValue);
+        }
+
+        AtomicReference<V> computedValue = new AtomicReference<>();
+        return flushed()
+                .thenCompose(ignored -> map.computeIfAbsentAsync(field, () -> {
+                    V value = defaultValue.get();
+                    computedValue.set(value);
+                    return value;
+                }))
+                .thenCompose(value -> {
+                    if (value == null) {
+                        return completedFuture(null);
+                    }
+
+                    if (value != computedValue.get()) {
+                        cachePut(field, value, 0L);
+                        return completedFuture(value);
+                    }
+                    return applyUpdateAsync(field, value).thenApply(ignored -> value);
+                });
+    }
+
+    private CompletableFuture<Void> applyUpdateAsync(F field, V value) {
+        if (value == null) {
+            cacheRemove(field);
+        } else {
+            cachePut(field, value, 0L);
+        }
+        return publishUpdateAsync(field, value);
+    }
+
+    private V cachedValue(F field) {
+        if (!expiryWheel.isEmpty()) {
+            long now = System.currentTimeMillis();
+            expiryWheel.advance(now);
+            if (expiryWheel.isExpired(field, now)) {
+                return null;
+            }
+        }
+
+        V value = cacheProvider.get(field);
+        if (value == null && !restoredSlots.isEmpty()) {
+            return restoreValue(field);
+        }
+        return value;
+    }
+
+    /**
+     * Deserializes the value of the field restored from the snapshot, if it has not been written or
+     * loaded since. Writers remove the slot first, which waits for a restore in progress.
+     */
+    private V restoreValue(F field) {
+        AtomicReference<V> restoredValue = new AtomicReference<>();
+        restoredSlots.computeIfPresent(field, (restoredField, slot) -> {
+            V value = serializer.deserialize(new String(restoredSnapshot.value(slot), UTF_8));
+            if (cacheStore(field, value, slot.expiresAt())) {
+                restoredValue.set(value);
+            }
+            return null;
+        });
+        return restoredValue.get();
+    }
+
+    /**
+     * Loads the given missing fields with a single bulk read, joining loads of the same fields already
+     * in flight. A load whose field is written or invalidated meanwhile still completes its callers,
+     * but leaves the cache alone, since its value may already be stale.
+     */
+    private Map<F, CompletableFuture<V>> load(Collection<F> fields) {
+        Map<F, CompletableFuture<V>> pendingLoads = new HashMap<>();
+        Map<F, CompletableFuture<V>> startedLoads = new HashMap<>();
+        for (F field : fields) {
+            CompletableFuture<V> load = new CompletableFuture<>();
+            CompletableFuture<V> existingLoad = loads.putIfAbsent(field, load);
+            if (existingLoad == null) {
+                startedLoads.put(field, load);
+                pendingLoads.put(field, load);
+            } else {
+                pendingLoads.put(field, existingLoad);
+            }
+        }
+
+        if (!startedLoads.isEmpty()) {
+            // A write racing with either read leaves the field uncached below, so the two need not be atomic.
+            CompletableFuture<Map<F, Long>> expirations = map.expirationsAsync(startedLoads.keySet());
+            map.getAllAsync(startedLoads.keySet())
+                    .thenCombine(expirations, (values, deadlines) -> {
+                        Map<F, Expiring<V>> loaded = new HashMap<>();
+                        values.forEach((field, value) -> loaded.put(
+                                field, new Expiring<>(value, deadlines.getOrDefault(field, 0L))));
+                        return loaded;
+                    })
+                    .whenComplete((values, exception) -> startedLoads.forEach((field, load) -> {
+                        if (exception != null) {
+                            loads.remove(field, load);
+                            load.completeExceptionally(exception);
+                            return;
+                        }
+
+                        Expiring<V> loaded = values.get(field);
+                        V value = loaded == null ? null : loaded.value();
+                        loads.computeIfPresent(field, (loadedField, currentLoad) -> {
+                            if (currentLoad != load) {
+                                return currentLoad;
+                            }
+
+                            // Redis does not hold the local write of the field yet, or did not when it was read.
+                            if (localWrite(field) != null || writesInFlight.containsKey(field)) {
+                                return null;
+                            }
+
+                            restoredSlots.remove(field);
+                            if (value != null) {
+                                cacheStore(field, value, loaded.expiresAt());
+                            } else {
+                                expiryWheel.cancel(field, () -> cacheProvider.remove(field));
+                            }
+                            return null;
+                        });
+                        load.complete(value);
+                    }));
+        }
+        return pendingLoads;
+    }
+
+    /**
+     * Caches entries read from Redis, expiring them on the same deadlines as Redis does.
+     */
+    private void cacheLoaded(Map<F, V> entries) {
+        Map<F, Long> expirations = await(map.expirationsAsync(entries.keySet()));
+        if (expirations.isEmpty()) {
+            cacheProvider.putAll(entries);
+            return;
+        }
+        entries.forEach((field, value) -> cacheStore(field, value, expirations.getOrDefault(field, 0L)));
+    }
+
+    /**
+     * Keeps loads in flight from overwriting a newer value; writers call this before touching the
+     * cache, which is serialized with the completion of the load.
+     */
+    private void invalidateLoad(F field) {
+        loads.remove(field);
+    }
+
+    /**
+     * Marks the fields as being written to Redis until the write completes. Invalidating loads when
+     * the write is applied to the cache is not enough: a load registered right after may still read
+     * the previous value, so no load completing meanwhile is cached.
+     */
+    private <T> CompletableFuture<T> writing(Collection<F> fields, Supplier<CompletableFuture<T>> write) {
+        fields.forEach(field -> writesInFlight.merge(field, 1, Integer::sum));
+        CompletableFuture<T> future;
+        try {
+            future = write.get();
+        } catch (RuntimeException exception) {
+            future = CompletableFuture.failedFuture(exception);
+        }
+        return future.whenComplete((ignored, exception) -> fields.forEach(field -> writesInFlight.computeIfPresent(
+                field, (writtenField, writes) -> writes == 1 ? null : writes - 1)));
+    }
+
+    /**
+     * Applies a local write, after the updates received before it.
+     */
+    private void cachePut(F field, V value, long expiresAt) {
+        applyReceivedUpdates();
+        cacheReplace(field, value, expiresAt);
+    }
+
+    private void cacheReplace(F field, V value, long expiresAt) {
+        invalidateLoad(field);
+        restoredSlots.remove(field);
+        cacheStore(field, value, expiresAt);
+    }
+
+    /**
+     * @return whether the value was stored, rather than dropped as already expired
+     */
+    private boolean cacheStore(F field, V value, long expiresAt) {
+        if (expiresAt == 0L) {
+            expiryWheel.cancel(field, () -> cacheProvider.put(field, value));
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        expiryWheel.advance(now);
+        if (expiresAt <= now) {
+            expiryWheel.cancel(field, () -> cacheProvider.remove(field));
+            return false;
+        }
+        expiryWheel.schedule(field, expiresAt, () -> cacheProvider.put(field, value));
+        return true;
+    }
+
+    private void cacheRemove(F field) {
+        applyReceivedUpdates();
+        cacheEvict(field);
+    }
+
+    private void cacheEvict(F field) {
+        invalidateLoad(field);
+        restoredSlots.remove(field);
+        expiryWheel.cancel(field, () -> cacheProvider.remove(field));
+    }
+
+    @Override
+    public Map<F, V> getAll(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<F, V> entries = new HashMap<>();
+        List<F> missingFields = new ArrayList<>();
+        for (F field : fields) {
+            if (field == null) {
+                continue;
+            }
+
+            V value = cachedValue(field);
+            if (value != null) {
+                entries.put(field, value);
+            } else if (readThrough) {
+                Write<V> write = localWrite(field);
+                if (write == null) {
+                    missingFields.add(field);
+                } else if (write.value() != null) {
+                    entries.put(field, write.value());
+                }
+            }
+        }
+
+        if (!missingFields.isEmpty()) {
+            load(missingFields).forEach((field, load) -> {
+                V value = await(load);
+                if (value != null) {
+                    entries.put(field, value);
+                }
+            });
+        }
+        return unmodifiableMap(entries);
+    }
+
+    @Override
+    public void setAll(Map<F, V> entries) {
+        await(setAllAsync(entries));
+    }
+
+    @Override
+    public CompletableFuture<Void> setAllAsync(Map<F, V> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return completedFuture(null);
+        }
+
+        Map<F, V> presentEntries = new LinkedHashMap<>();
+        entries.forEach((field, value) -> {
+            if (field != null && value != null) {
+                presentEntries.put(field, value);
+            }
+        });
+
+        if (flushTask != null) {
+            presentEntries.forEach(this::writeBehind);
+            return nextFlush;
+        }
+
+        return writing(presentEntries.keySet(), () -> {
+            applyReceivedUpdates();
+            if (expiryWheel.isEmpty() && loads.isEmpty() && restoredSlots.isEmpty()) {
+                cacheProvider.putAll(presentEntries);
+            } else {
+                presentEntries.forEach((field, value) -> cachePut(field, value, 0L));
+            }
+            return map.setAllAsync(presentEntries);
+        }).thenCompose(ignored -> {
+            List<CompletableFuture<?>> updates = new ArrayList<>(presentEntries.size());
+            presentEntries.forEach((field, value) -> updates.add(publishUpdateAsync(field, value)));
+            return CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new));
+        });
+    }
+
+    @Override
+    public void delAll(Collection<F> fields) {
+        await(delAllAsync(fields));
+    }
+
+    @Override
+    public CompletableFuture<Void> delAllAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(null);
+        }
+
+        List<F> presentFields = fields.stream().filter(Objects::nonNull).toList();
+        if (flushTask != null) {
+            presentFields.forEach(field -> writeBehind(field, null));
+            return nextFlush;
+        }
+
+        return writing(presentFields, () -> {
+            applyReceivedUpdates();
+            if (expiryWheel.isEmpty() && loads.isEmpty() && restoredSlots.isEmpty()) {
+                cacheProvider.removeAll(presentFields);
+            } else {
+                presentFields.forEach(this::cacheRemove);
+            }
+            return map.delAllAsync(presentFields);
+        }).thenCompose(ignored -> {
+            List<CompletableFuture<?>> updates = new ArrayList<>(presentFields.size());
+            for (F field : presentFields) {
+                updates.add(publishUpdateAsync(field, null));
+            }
+            return CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new));
+        });
+    }
+
+    private void publishUpdate(F field, V value) {
+        if (changeLog == null) {
+            packetBroker.publish(mapUpdatesTopic, update(field, value, 0L));
+        } else {
+            await(publishUpdateAsync(field, value));
+        }
+    }
+
+    private CompletableFuture<Void> publishUpdateAsync(F field, V value) {
+        return publishAsync(update(field, value, 0L));
+    }
+
+    /**
+     * Publishes the update, versioned by the change log if the map keeps one. The change is recorded
+     * after the write, so that instances catching up on it read the written value.
+     */
+    private CompletableFuture<Void> publishAsync(P update) {
+        if (changeLog == null) {
+            return packetBroker.publishAsync(mapUpdatesTopic, update);
+        }
+
+        String[] changedFields = update.getEntries() == null
+                ? new String[] {update.getKey()}
+                : update.getEntries().keySet().toArray(String[]::new);
+        return changeLog.record(changedFields).thenCompose(version -> {
+            update.setVersion(version);
+            return packetBroker.publishAsync(mapUpdatesTopic, update);
+        });
+    }
+
+    private P update(F field, V value, long expiresAt) {
+        if (invalidations) {
+            P update = updateFactory.apply(serializer.serializeRaw(field), null);
+            update.setOrigin(origin);
+            return update;
+        }
+
+        P update = updateFactory.apply(
+                serializer.serializeRaw(field), value == null ? null : serializer.serialize(value));
+        update.setOrigin(origin);
+        if (expiresAt != 0L) {
+            update.setExpiresAt(expiresAt);
+        }
+        return update;
+    }
+
+    /**
+     * Applies a write to the local cache and buffers it for the next flush, replacing any buffered
+     * write of the same field.
+     *
+     * @return a future completed once the write has been flushed
+     */
+    private CompletableFuture<Void> writeBehind(F field, V value) {
+        if (field == null) {
+            return completedFuture(null);
+        }
+
+        if (value == null) {
+            cacheRemove(field);
+        } else {
+            cachePut(field, value, 0L);
+        }
+        pendingWrites.put(field, new Write<>(value));
+        return nextFlush;
+    }
+
+    /**
+     * Returns the buffered write of the field which Redis may not hold yet, if any.
+     */
+    private Write<V> localWrite(F field) {
+        Write<V> write = pendingWrites.get(field);
+        return write != null ? write : flushingWrites.get(field);
+    }
+
+    /**
+     * Flushes buffered writes before an operation which has to see them in Redis.
+     */
+    private CompletableFuture<Void> flushed() {
+        return flushTask == null ? completedFuture(null) : flushAsync();
+    }
+
+    /**
+     * Sends the buffered writes to Redis as one pipelined batch, and broadcasts them once written as a
+     * single update. Batches are issued in order, and the returned future also waits for the batches
+     * issued before. Writes of a failed batch are buffered again, unless written anew meanwhile.
+     */
+    public CompletableFuture<Void> flushAsync() {
+        flushLock.lock();
+        try {
+            CompletableFuture<Void> flush = nextFlush;
+            nextFlush = new CompletableFuture<>();
+
+            Map<F, Write<V>> batch = new LinkedHashMap<>();
+            for (F field : pendingWrites.keySet()) {
+                Write<V> write = pendingWrites.remove(field);
+                if (write != null) {
+                    flushingWrites.put(field, write);
+                    batch.put(field, write);
+                }
+            }
+
+            CompletableFuture<Void> written = batch.isEmpty() ? completedFuture(null) : writeBatch(batch);
+            lastFlush.handle((ignored, exception) -> null)
+                    .thenCompose(ignored -> written)
+                    .whenComplete((ignored, exception) -> {
+                        if (exception == null) {
+                            flush.complete(null);
+                        } else {
+                            flush.completeExceptionally(exception);
+                        }
+                    });
+            lastFlush = flush;
+            return flush;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private CompletableFuture<Void> writeBatch(Map<F, Write<V>> batch) {
+        Map<F, V> values = new LinkedHashMap<>();
+        List<F> deletedFields = new ArrayList<>();
+        batch.forEach((field, write) -> {
+            if (write.value() == null) {
+                deletedFields.add(field);
+            } else {
+                values.put(field, write.value());
+            }
+        });
+
+        CompletableFuture<?> setValues = values.isEmpty() ? completedFuture(null) : map.setAllAsync(values);
+        CompletableFuture<?> deleteFields =
+                deletedFields.isEmpty() ? completedFuture(null) : map.delAllAsync(deletedFields);
+        return CompletableFuture.allOf(setValues, deleteFields)
+                .thenCompose(ignored -> publishBatchAsync(batch))
+                .whenComplete((ignored, exception) -> {
+                    if (exception != null) {
+                        logger.log(WARNING, "Could not flush writes of %s.".formatted(mapUpdatesTopic), exception);
+                    }
+
+                    batch.forEach((field, write) -> {
+                        if (exception != null) {
+                            pendingWrites.putIfAbsent(field, write);
+                        }
+                        flushingWrites.remove(field, write);
+                    });
+                });
+    }
+
+    private CompletableFuture<Void> publishBatchAsync(Map<F, Write<V>> batch) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        batch.forEach((field, write) -> entries.put(
+                serializer.serializeRaw(field),
+                invalidations || write.value() == null ? null : serializer.serialize(write.value())));
+
+        P update = updateFactory.apply(null, null);
+        update.setOrigin(origin);
+        update.setEntries(entries);
+        if (update.getEntries() != null) {
+            return publishAsync(update);
+        }
+
+        List<CompletableFuture<?>> updates = new ArrayList<>(batch.size());
+        batch.forEach((field, write) -> updates.add(publishUpdateAsync(field, write.value())));
+        return CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Flushes the buffered writes, applies the received updates, writes a last snapshot and stops
+     * doing any of them periodically.
+     */
+    @Override
+    public void close() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            await(flushAsync());
+        }
+        if (updateTask != null) {
+            updateTask.cancel();
+            applyReceivedUpdates();
+        }
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Maps the snapshot and catches up on the changes made since it was written. Entries are only
+     * indexed here and deserialized once read.
+     *
+     * @return whether the cache was restored, or has to be loaded from Redis instead
+     */
+    private boolean restoreSnapshot(long currentVersion) {
+        try {
+            CachedMapSnapshot restored = CachedMapSnapshot.read(snapshot.path(), key);
+            // A version ahead of Redis means the map has been recreated since.
+            if (restored == null || restored.version() > currentVersion) {
+                return false;
+            }
+
+            restoredSnapshot = restored;
+            restored.slots().forEach((field, slot) -> restoredSlots.put(serializer.deserializeRaw(field), slot));
+            await(catchUp(restored.version()));
+            return true;
+        } catch (IOException | RuntimeException exception) {
+            logger.log(WARNING, "Could not restore %s from snapshot %s.".formatted(key, snapshot.path()), exception);
+            restoredSlots.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Saves the cache, unless nothing changed since the last snapshot. Buffered writes are left out,
+     * since Redis may never receive them, and so are entries about to expire.
+     */
+    private void writeSnapshot() {
+        snapshotLock.lock();
+        try {
+            long version = appliedVersion.get();
+            if (version == snapshotVersion) {
+                return;
+            }
+
+            // Entries restored meanwhile are in the cache and override their slot.
+            Map<F, CachedMapSnapshot.Entry> entries = new LinkedHashMap<>();
+            CachedMapSnapshot restored = restoredSnapshot;
+            restoredSlots.forEach((field, slot) -> entries.put(
+                    field, new CachedMapSnapshot.Entry(rawField(field), slot.expiresAt(), restored.value(slot))));
+
+            long now = System.currentTimeMillis();
+            for (CacheProvider.Entry<F, V> entry : cacheProvider.entries()) {
+                F field = entry.getKey();
+                long expiresAt = expiryWheel.deadline(field);
+                if (localWrite(field) != null || (expiresAt != 0L && expiresAt <= now)) {
+                    entries.remove(field);
+                    continue;
+                }
+
+                byte[] value = serializer.serialize(entry.getValue()).getBytes(UTF_8);
+                entries.put(field, new CachedMapSnapshot.Entry(rawField(field), expiresAt, value));
+            }
+
+            CachedMapSnapshot.write(snapshot.path(), key, version, entries.values());
+            snapshotVersion = version;
+        } catch (IOException | RuntimeException exception) {
+            logger.log(WARNING, "Could not write snapshot %s of %s.".formatted(snapshot.path(), key), exception);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private byte[] rawField(F field) {
+        return serializer.serializeRaw(field).getBytes(UTF_8);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exception;
+        }
     }
 
     @Override
     public Iterable<F> keys() {
-        return cacheProvider.keys();
+        if (restoredSlots.isEmpty()) {
+            return cacheProvider.keys();
+        }
+
+        Set<F> keys = new LinkedHashSet<>(restoredSlots.keySet());
+        cacheProvider.keys().forEach(keys::add);
+        return unmodifiableSet(keys);
     }
 
     @Override
     public Stream<V> values() {
-        return map.values();
+        return values(readConsistency);
+    }
+
+    @Override
+    public Stream<V> values(CachedMapOptions.ReadConsistency consistency) {
+        if (!readsLocally(consistency)) {
+            return map.values();
+        }
+        return StreamSupport.stream(keys().spliterator(), false).map(this::cachedValue).filter(Objects::nonNull);
     }
 
     @Override
     public long size() {
-        return map.size();
+        return size(readConsistency);
+    }
+
+    /**
+     * Read locally, the size may still count entries expiring within the current tick.
+     */
+    @Override
+    public long size(CachedMapOptions.ReadConsistency consistency) {
+        if (!readsLocally(consistency)) {
+            return map.size();
+        }
+
+        expiryWheel.advance(System.currentTimeMillis());
+        return cacheProvider.size() + restoredSlots.size();
+    }
+
+    /**
+     * Verifying compares the version of the map in Redis with the one the cache has caught up to,
+     * which is only meaningful if the cache holds every entry and no gap is being resynchronized.
+     */
+    private boolean readsLocally(CachedMapOptions.ReadConsistency consistency) {
+        return switch (consistency) {
+            case LOCAL -> true;
+            case REMOTE -> false;
+            case VERIFIED -> !readThrough
+                    && changeLog != null
+                    && resyncs.get() == 0
+                    && await(changeLog.version()) == appliedVersion.get();
+        };
     }
 
     @Override
@@ -96,16 +997,299 @@ public final class RedisCachedMap<S extends Serializable, P extends CachedMapUpd
         return mapUpdatesTopic;
     }
 
+    /**
+     * Tracks the last version received and catches up when versions were skipped. Updates older than
+     * the last version are dropped: catching up has already loaded their fields, possibly with newer
+     * values.
+     */
+    private boolean acceptVersion(long version) {
+        long missedAfter;
+        versionLock.lock();
+        try {
+            if (version <= lastVersion) {
+                return false;
+            }
+
+            missedAfter = version == lastVersion + 1 ? -1L : lastVersion;
+            lastVersion = version;
+        } finally {
+            versionLock.unlock();
+        }
+
+        if (missedAfter >= 0L) {
+            resync(missedAfter, version);
+        }
+        return true;
+    }
+
+    private void resync(long missedAfter, long version) {
+        resyncs.incrementAndGet();
+        catchUp(missedAfter).whenComplete((ignored, exception) -> {
+            if (exception == null) {
+                if (resyncs.decrementAndGet() == 0) {
+                    appliedVersion.accumulateAndGet(version, Math::max);
+                }
+                return;
+            }
+
+            resyncs.decrementAndGet();
+            logger.log(WARNING, "Could not catch up on changes of %s.".formatted(mapUpdatesTopic), exception);
+            // Makes the next update detect the gap again.
+            versionLock.lock();
+            try {
+                lastVersion = Math.min(lastVersion, missedAfter);
+            } finally {
+                versionLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Refreshes the fields changed after {@code version}, or the whole map if the change log no longer
+     * reaches back that far.
+     */
+    private CompletableFuture<Void> catchUp(long version) {
+        return changeLog.changesSince(version)
+                .thenCompose(changes -> {
+                    if (changes.trimmed()) {
+                        return reload();
+                    }
+
+                    List<F> fields = changes.fields().stream()
+                            .map(field -> (F) serializer.deserializeRaw(field))
+                            .toList();
+                    return refresh(fields);
+                });
+    }
+
+    /**
+     * Reads the fields from Redis again, or merely evicts them in read-through maps.
+     */
+    private CompletableFuture<Void> refresh(Collection<F> fields) {
+        if (readThrough) {
+            fields.forEach(this::cacheEvict);
+            return completedFuture(null);
+        }
+        return CompletableFuture.allOf(load(fields).values().toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Reloads the map after the change log has been trimmed past the last version received. Read-through
+     * maps simply start over empty. Other maps read the current entries only to learn their fields,
+     * and load those and the cached ones through the regular load, so that writes racing with the
+     * reload are kept. This transfers the map twice, but only happens when a map fell far behind.
+     */
+    private CompletableFuture<Void> reload() {
+        if (readThrough) {
+            loads.clear();
+            restoredSlots.clear();
+            cacheProvider.clear();
+            return completedFuture(null);
+        }
+
+        return map.entriesAsync().thenCompose(entries -> {
+            Set<F> fields = new HashSet<>(entries.keySet());
+            keys().forEach(fields::add);
+            return CompletableFuture.allOf(load(fields).values().toArray(CompletableFuture[]::new));
+        });
+    }
+
     @SuppressWarnings("unused")
     @Subscribe
     public void onUpdate(P packet) {
-        String updateKey = packet.getKey();
-        String updateValue = packet.getValue();
-        if (updateValue == null) {
-            cacheProvider.remove(serializer.deserializeRaw(updateKey));
+        if (receivedUpdates == null) {
+            applyUpdates(List.of(packet));
+            return;
+        }
+
+        // Applying a full queue on the receiving thread slows the subscription down instead of dropping updates.
+        while (!receivedUpdates.offer(packet)) {
+            applyReceivedUpdates();
+        }
+    }
+
+    /**
+     * Applies the queued updates in the order they were received. Does nothing while they are being
+     * applied by the current thread, which would otherwise apply later updates first.
+     */
+    private void applyReceivedUpdates() {
+        if (receivedUpdates == null || receivedUpdates.isEmpty() || updateLock.isHeldByCurrentThread()) {
+            return;
+        }
+
+        updateLock.lock();
+        try {
+            List<P> packets = new ArrayList<>();
+            while (receivedUpdates.drainTo(packets) > 0) {
+                applyUpdates(packets);
+                packets.clear();
+            }
+        } catch (RuntimeException exception) {
+            logger.log(WARNING, "Could not apply updates of %s.".formatted(mapUpdatesTopic), exception);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void applyUpdates(List<P> packets) {
+        // Keyed by serialized field, so that a later update of a field replaces the earlier one undeserialized.
+        Map<String, Update> updates = new LinkedHashMap<>();
+        long lastAppliedVersion = 0L;
+        for (P packet : packets) {
+            long version = packet.getVersion();
+            boolean versioned = changeLog != null && version != 0L;
+            if (versioned && !acceptVersion(version)) {
+                continue;
+            }
+
+            // The local cache already holds our own writes; applying their echo could even reorder them.
+            if (!origin.equals(packet.getOrigin())) {
+                if (packet.getEntries() != null) {
+                    packet.getEntries().forEach((field, value) -> updates.put(field, new Update(value, 0L)));
+                } else {
+                    updates.put(packet.getKey(), new Update(packet.getValue(), packet.getExpiresAt()));
+                }
+            }
+            if (versioned) {
+                lastAppliedVersion = Math.max(lastAppliedVersion, version);
+            }
+        }
+
+        if (!updates.isEmpty() && !applyUpdates(updates)) {
+            // Some fields only get refreshed asynchronously, so the cache is not yet as recent as the batch.
+            return;
+        }
+
+        // While catching up on a gap, the cache is only as recent as the gap.
+        if (lastAppliedVersion != 0L && resyncs.get() == 0) {
+            appliedVersion.accumulateAndGet(lastAppliedVersion, Math::max);
+        }
+    }
+
+    /**
+     * Applies the updates to the cache. An update which cannot be applied does not hold back the
+     * others: its field is refreshed from Redis instead.
+     *
+     * @return whether every update has been applied
+     */
+    private boolean applyUpdates(Map<String, Update> updates) {
+        Map<F, Update> puts = new LinkedHashMap<>();
+        List<F> removals = new ArrayList<>();
+        Set<F> failedFields = ConcurrentHashMap.newKeySet();
+        AtomicInteger failures = new AtomicInteger();
+        updates.forEach((key, update) -> {
+            F field;
+            try {
+                field = serializer.deserializeRaw(key);
+            } catch (RuntimeException exception) {
+                // Without the field there is nothing to refresh; the next change of it repairs the cache.
+                failures.incrementAndGet();
+                logger.log(WARNING, "Could not read field of an update of %s.".formatted(mapUpdatesTopic), exception);
+                return;
+            }
+            // Our buffered write is newer and overwrites this one in Redis once flushed.
+            if (localWrite(field) != null) {
+                return;
+            }
+
+            // Deletions and, in invalidation mode, every update: a later read loads the field if present.
+            if (update.value() == null) {
+                removals.add(field);
+                return;
+            }
+
+            // Read-through maps only refresh what they hold; other fields get loaded once they are read.
+            if (readThrough && !cacheProvider.containsKey(field)) {
+                invalidateLoad(field);
+                restoredSlots.remove(field);
+                return;
+            }
+
+            puts.put(field, update);
+        });
+
+        Map<F, V> values = deserializeValues(puts, failedFields);
+        try {
+            cacheUpdates(puts, values, removals);
+        } catch (RuntimeException exception) {
+            logger.log(WARNING, "Could not apply updates of %s.".formatted(mapUpdatesTopic), exception);
+            failedFields.addAll(values.keySet());
+            failedFields.addAll(removals);
+        }
+
+        if (failedFields.isEmpty()) {
+            return failures.get() == 0;
+        }
+
+        refresh(failedFields).whenComplete((ignored, exception) -> {
+            if (exception != null) {
+                logger.log(WARNING, "Could not refresh fields of %s.".formatted(mapUpdatesTopic), exception);
+            }
+        });
+        return false;
+    }
+
+    private void cacheUpdates(Map<F, Update> puts, Map<F, V> values, List<F> removals) {
+        if (!expiryWheel.isEmpty() || !loads.isEmpty() || !restoredSlots.isEmpty()) {
+            values.forEach((field, value) -> cacheReplace(field, value, puts.get(field).expiresAt()));
+            removals.forEach(this::cacheEvict);
             return;
         }
 
-        cacheProvider.put(serializer.deserializeRaw(updateKey), serializer.deserialize(updateValue));
+        Map<F, V> bulkPuts = new HashMap<>();
+        values.forEach((field, value) -> {
+            long expiresAt = puts.get(field).expiresAt();
+            if (expiresAt == 0L) {
+                bulkPuts.put(field, value);
+            } else {
+                cacheReplace(field, value, expiresAt);
+            }
+        });
+        cacheProvider.putAll(bulkPuts);
+        cacheProvider.removeAll(removals);
     }
+
+    /**
+     * Deserializes the values of the updates, adding the fields whose value cannot be read to {@code failedFields}.
+     */
+    private Map<F, V> deserializeValues(Map<F, Update> updates, Set<F> failedFields) {
+        Stream<Map.Entry<F, Update>> entries = updates.entrySet().stream();
+        if (updates.size() >= PARALLEL_DESERIALIZATION_THRESHOLD) {
+            entries = entries.parallel();
+        }
+
+        Map<F, V> values = new ConcurrentHashMap<>();
+        entries.forEach(entry -> {
+            try {
+                values.put(entry.getKey(), deserialize(entry.getValue().value()));
+            } catch (RuntimeException exception) {
+                failedFields.add(entry.getKey());
+                logger.log(
+                        WARNING,
+                        "Could not read value of field %s of %s.".formatted(entry.getKey(), mapUpdatesTopic),
+                        exception);
+            }
+        });
+        return values;
+    }
+
+    private V deserialize(String value) {
+        return serializer.deserialize(value);
+    }
+
+    /**
+     * @param value     The serialized value, or {@code null} if the field has been deleted or invalidated
+     * @param expiresAt The epoch millisecond at which the field expires, or zero if it does not
+     */
+    private record Update(String value, long expiresAt) {}
+
+    /**
+     * @param value The written value, or {@code null} for a deletion
+     */
+    private record Write<V>(V value) {}
+
+    /**
+     * @param expiresAt The epoch millisecond at which the value expires, or zero if it does not
+     */
+    private record Expiring<V>(V value, long expiresAt) {}
 }
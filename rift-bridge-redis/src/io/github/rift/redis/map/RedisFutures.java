@@ -0,0 +1,50 @@
+package io.github.rift.redis.map;
+
+import io.lettuce.core.RedisCommandInterruptedException;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+final class RedisFutures {
+
+    private RedisFutures() {}
+
+    /**
+     * Runs an asynchronous operation, turning exceptions thrown while preparing it (e.g. while
+     * serializing) into a failed future.
+     */
+    static <T> CompletableFuture<T> async(Supplier<? extends CompletionStage<T>> operation) {
+        try {
+            return operation.get().toCompletableFuture();
+        } catch (Exception exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Waits for an asynchronous operation within the given command timeout, rethrowing its failure the
+     * way the synchronous API does.
+     */
+    static <T> T await(CompletableFuture<T> future, Duration timeout) {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RedisCommandInterruptedException(exception);
+        } catch (TimeoutException exception) {
+            future.cancel(true);
+            throw new RedisCommandTimeoutException(exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RedisException(exception.getCause());
+        }
+    }
+}
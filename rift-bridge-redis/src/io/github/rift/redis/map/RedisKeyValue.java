@@ -1,5 +1,7 @@
 package io.github.rift.redis.map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import io.lettuce.core.SetArgs;
 import io.lettuce.core.api.StatefulRedisConnection;
 import java.time.Duration;
@@ -8,19 +10,19 @@ import org.jetbrains.annotations.NotNull;
 
 public final class RedisKeyValue implements KeyValue {
 
-    private final StatefulRedisConnection<String, String> connection;
+    private final StatefulRedisConnection<String, byte[]> connection;
 
-    private RedisKeyValue(StatefulRedisConnection<String, String> connection) {
+    private RedisKeyValue(StatefulRedisConnection<String, byte[]> connection) {
         this.connection = connection;
     }
 
-    public static RedisKeyValue create(@NotNull StatefulRedisConnection<String, String> connection) {
+    public static RedisKeyValue create(@NotNull StatefulRedisConnection<String, byte[]> connection) {
         return new RedisKeyValue(connection);
     }
 
     @Override
     public boolean set(String key, String value) {
-        return "OK".equals(connection.sync().set(key, value));
+        return "OK".equals(connection.sync().set(key, encode(value)));
     }
 
     @Override
@@ -30,7 +32,7 @@ public final class RedisKeyValue implements KeyValue {
         if (ttlToMillis > 0) {
             setArgs.px(ttlToMillis);
         }
-        return "OK".equals(connection.sync().set(key, value, setArgs));
+        return "OK".equals(connection.sync().set(key, encode(value), setArgs));
     }
 
     @Override
@@ -45,12 +47,12 @@ public final class RedisKeyValue implements KeyValue {
         if (onlyIfNotExists) {
             setArgs.nx();
         }
-        return "OK".equals(connection.sync().set(key, value, setArgs));
+        return "OK".equals(connection.sync().set(key, encode(value), setArgs));
     }
 
     @Override
     public String get(String key) {
-        return connection.sync().get(key);
+        return decode(connection.sync().get(key));
     }
 
     @Override
@@ -82,4 +84,12 @@ public final class RedisKeyValue implements KeyValue {
     public boolean contains(String key) {
         return connection.sync().exists(key) > 0;
     }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(UTF_8);
+    }
+
+    private static String decode(byte[] value) {
+        return value == null ? null : new String(value, UTF_8);
+    }
 }
@@ -1,112 +1,842 @@
 package io.github.rift.redis.map;
 
+import static io.github.rift.redis.map.RedisFutures.async;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
-import io.github.rift.serializer.Serializer;
 import io.github.rift.map.RiftMap;
+import io.github.rift.serializer.BinarySerializer;
+import io.github.rift.serializer.Serializer;
+import io.lettuce.core.MapScanCursor;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class RedisMap<S extends Serializable, F, V extends S> implements RiftMap<S, F, V> {
 
+    /**
+     * Default number of fields requested per HSCAN page.
+     */
+    public static final int DEFAULT_SCAN_COUNT = 256;
+
+    /**
+     * Default maximal number of fields sent in a single HMGET, HSET or HDEL command. Bulk operations on
+     * more fields are split into several commands, which are pipelined on the connection.
+     */
+    public static final int DEFAULT_FIELDS_PER_COMMAND = 512;
+
+    /**
+     * Removes every field whose deadline recorded in the expiry index has passed, in batches, leaving
+     * their number in {@code purged}. Scripts reading or claiming fields start with it, so that
+     * servers without hash-field expiration never hand out a field past its deadline.
+     */
+    private static final String PURGE_EXPIRED_FIELDS =
+            """
+            local time = redis.call('TIME')
+            local now = time[1] * 1000 + math.floor(time[2] / 1000)
+            local purged = 0
+            repeat
+                local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now, 'LIMIT', 0, 1024)
+                if #expired > 0 then
+                    redis.call('HDEL', KEYS[1], unpack(expired))
+                    redis.call('ZREM', KEYS[2], unpack(expired))
+                end
+                purged = purged + #expired
+            until #expired < 1024
+            """;
+
+    private static final String COMPARE_AND_SET_SCRIPT = PURGE_EXPIRED_FIELDS
+            + """
+            if redis.call('HGET', KEYS[1], ARGV[1]) ~= ARGV[2] then
+                return 0
+            end
+            if ARGV[3] then
+                redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+            else
+                redis.call('HDEL', KEYS[1], ARGV[1])
+            end
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            return 1
+            """;
+
+    /**
+     * Stores the field and expires it with HPEXPIRE where the server supports hash-field expiration
+     * (Redis 7.4+). Older servers get the deadline recorded in a sorted set instead, from which the
+     * script also purges a bounded batch of already expired fields.
+     */
+    private static final String SET_WITH_TTL_SCRIPT =
+            """
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            if pcall(redis.call, 'HPEXPIRE', KEYS[1], ARGV[3], 'FIELDS', 1, ARGV[1]) then
+                return 1
+            end
+            local time = redis.call('TIME')
+            local now = time[1] * 1000 + math.floor(time[2] / 1000)
+            redis.call('ZADD', KEYS[2], now + tonumber(ARGV[3]), ARGV[1])
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now, 'LIMIT', 0, 64)
+            if #expired > 0 then
+                redis.call('HDEL', KEYS[1], unpack(expired))
+                redis.call('ZREM', KEYS[2], unpack(expired))
+            end
+            return 0
+            """;
+
+    /**
+     * Stores fields and drops their recorded deadlines in one step, whichever instance recorded them,
+     * mirroring how HSET clears native field expiration.
+     */
+    private static final String SET_FIELDS_SCRIPT =
+            """
+            local fields = {}
+            for index = 1, #ARGV, 2 do
+                fields[#fields + 1] = ARGV[index]
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV))
+            redis.call('ZREM', KEYS[2], unpack(fields))
+            return #fields
+            """;
+
+    private static final String DEL_FIELDS_SCRIPT =
+            """
+            local deleted = redis.call('HDEL', KEYS[1], unpack(ARGV))
+            redis.call('ZREM', KEYS[2], unpack(ARGV))
+            return deleted
+            """;
+
+    private static final String PURGE_EXPIRED_SCRIPT = PURGE_EXPIRED_FIELDS + "return purged\n";
+
+    /**
+     * Runs the hash command named by the first argument on the purged hash.
+     */
+    private static final String UNEXPIRED_CALL_SCRIPT =
+            PURGE_EXPIRED_FIELDS + "return redis.call(ARGV[1], KEYS[1], unpack(ARGV, 2))\n";
+
+    /**
+     * A field no map ever holds, whose expiration time is queried to find out whether the server
+     * supports hash-field expiration.
+     */
+    private static final String PROBE_FIELD = "\0rift-probe";
+
     private final String key;
-    private final Serializer serializer;
-    private final StatefulRedisConnection<String, String> connection;
+    private final String[] expiryIndexKeys;
+    private final BinarySerializer serializer;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final int fieldsPerCommand;
+    private final ScanArgs scanArgs;
+    private final RedisScript compareAndSetScript;
+    private final RedisScript setWithTtlScript;
+    private final RedisScript purgeExpiredScript;
+    private final RedisScript setFieldsScript;
+    private final RedisScript delFieldsScript;
+    private final RedisScript unexpiredCallScript;
+    private volatile CompletableFuture<Boolean> nativeFieldExpiry;
 
-    private RedisMap(String key, Serializer serializer, StatefulRedisConnection<String, String> connection) {
+    private RedisMap(
+            String key,
+            Serializer serializer,
+            StatefulRedisConnection<String, byte[]> connection,
+            int fieldsPerCommand,
+            int scanCount) {
         this.key = key;
-        this.serializer = serializer;
+        this.expiryIndexKeys = new String[] {key, slotKey(key, ":field-expirations")};
+        this.serializer = BinarySerializer.of(serializer);
         this.connection = connection;
+        this.fieldsPerCommand = fieldsPerCommand;
+        this.scanArgs = ScanArgs.Builder.limit(scanCount);
+        this.compareAndSetScript = RedisScript.create(COMPARE_AND_SET_SCRIPT, connection);
+        this.setWithTtlScript = RedisScript.create(SET_WITH_TTL_SCRIPT, connection);
+        this.purgeExpiredScript = RedisScript.create(PURGE_EXPIRED_SCRIPT, connection);
+        this.setFieldsScript = RedisScript.create(SET_FIELDS_SCRIPT, connection);
+        this.delFieldsScript = RedisScript.create(DEL_FIELDS_SCRIPT, connection);
+        this.unexpiredCallScript = RedisScript.create(UNEXPIRED_CALL_SCRIPT, connection);
+    }
+
+    /**
+     * Names a key which hashes to the same cluster slot as {@code key}, as scripts touching both
+     * require. {@code key} becomes the hash tag of the name, unless it already holds one.
+     */
+    static String slotKey(String key, String suffix) {
+        int tagStart = key.indexOf('{');
+        if (tagStart >= 0 && key.indexOf('}', tagStart) > tagStart + 1) {
+            return key + suffix;
+        }
+        return '{' + key + '}' + suffix;
     }
 
     public static <S extends Serializable, F, V extends S> RedisMap<S, F, V> create(
-            String key, Serializer serializer, StatefulRedisConnection<String, String> connection) {
-        return new RedisMap<>(key, serializer, connection);
+            String key, Serializer serializer, StatefulRedisConnection<String, byte[]> connection) {
+        return create(key, serializer, connection, DEFAULT_FIELDS_PER_COMMAND);
+    }
+
+    public static <S extends Serializable, F, V extends S> RedisMap<S, F, V> create(
+            String key,
+            Serializer serializer,
+            StatefulRedisConnection<String, byte[]> connection,
+            int fieldsPerCommand) {
+        return create(key, serializer, connection, fieldsPerCommand, DEFAULT_SCAN_COUNT);
+    }
+
+    public static <S extends Serializable, F, V extends S> RedisMap<S, F, V> create(
+            String key,
+            Serializer serializer,
+            StatefulRedisConnection<String, byte[]> connection,
+            int fieldsPerCommand,
+            int scanCount) {
+        if (fieldsPerCommand < 1) {
+            throw new IllegalArgumentException(
+                    "Fields per command must be positive, got %d.".formatted(fieldsPerCommand));
+        }
+
+        if (scanCount < 1) {
+            throw new IllegalArgumentException("Scan count must be positive, got %d.".formatted(scanCount));
+        }
+        return new RedisMap<>(key, serializer, connection, fieldsPerCommand, scanCount);
     }
 
     @Override
     public boolean set(F field, V value) {
+        return await(setAsync(field, value));
+    }
+
+    @Override
+    public boolean set(F field, V value, Duration ttl) {
+        return await(setAsync(field, value, ttl));
+    }
+
+    @Override
+    public V get(F field) {
+        return await(getAsync(field));
+    }
+
+    @Override
+    public boolean del(F field) {
+        return await(delAsync(field));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setAsync(F field, V value) {
         if (field == null || value == null) {
-            return false;
+            return completedFuture(false);
         }
 
-        String serializedField = serializer.serializeRaw(field);
-        String serializedValue = serializer.serialize(value);
-        connection.sync().hset(key, serializedField, serializedValue);
-        return true;
+        return async(() -> {
+            Map<String, byte[]> entry = Map.of(serializer.serializeRaw(field), serializer.serializeToBytes(value));
+            return nativeFieldExpiry()
+                    .thenCompose(nativeExpiry -> hset(connection.async(), entry, nativeExpiry))
+                    .thenApply(ignored -> true);
+        });
     }
 
     @Override
-    public V get(F field) {
+    public CompletableFuture<Boolean> setAsync(F field, V value, Duration ttl) {
+        if (ttl == null) {
+            return setAsync(field, value);
+        }
+
+        if (field == null || value == null) {
+            return completedFuture(false);
+        }
+
+        if (ttl.toMillis() < 1) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("TTL must be at least one millisecond, got %s.".formatted(ttl)));
+        }
+
+        return async(() -> {
+            byte[] serializedField = serializer.serializeRaw(field).getBytes(UTF_8);
+            byte[] serializedValue = serializer.serializeToBytes(value);
+            byte[] serializedTtl = Long.toString(ttl.toMillis()).getBytes(UTF_8);
+            return setWithTtlScript
+                    .<Long>execute(
+                            connection.async(),
+                            ScriptOutputType.INTEGER,
+                            expiryIndexKeys,
+                            serializedField,
+                            serializedValue,
+                            serializedTtl)
+                    .thenApply(ignored -> true);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<F, Long>> expirationsAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(Map.of());
+        }
+
+        return async(() -> {
+            List<F> requestedFields = fields.stream().filter(Objects::nonNull).toList();
+            String[] rawFields = requestedFields.stream().map(serializer::serializeRaw).toArray(String[]::new);
+            return nativeFieldExpiry()
+                    .thenCompose(nativeExpiry -> executeInChunks(rawFields.length, (commands, from, to) -> {
+                        String[] chunk = Arrays.copyOfRange(rawFields, from, to);
+                        return nativeExpiry ? commands.hpexpiretime(key, chunk) : indexedExpirations(commands, chunk);
+                    }))
+                    .thenApply(chunks -> {
+                        Map<F, Long> expirations = new HashMap<>();
+                        int index = 0;
+                        for (List<Long> chunk : chunks) {
+                            for (Long expiresAt : chunk) {
+                                F field = requestedFields.get(index++);
+                                // Negative replies stand for persistent or absent fields.
+                                if (expiresAt != null && expiresAt > 0L) {
+                                    expirations.put(field, expiresAt);
+                                }
+                            }
+                        }
+                        return unmodifiableMap(expirations);
+                    });
+        });
+    }
+
+    private CompletionStage<List<Long>> indexedExpirations(
+            RedisAsyncCommands<String, byte[]> commands, String[] serializedFields) {
+        byte[][] members = new byte[serializedFields.length][];
+        for (int index = 0; index < serializedFields.length; index++) {
+            members[index] = serializedFields[index].getBytes(UTF_8);
+        }
+        return commands.zmscore(expiryIndexKeys[1], members).thenApply(scores -> scores.stream()
+                .map(score -> score == null ? null : score.longValue())
+                .toList());
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(F field) {
         if (field == null) {
-            return null;
+            return completedFuture(null);
         }
 
-        String serializedField = serializer.serializeRaw(field);
-        String rawValue = connection.sync().hget(key, serializedField);
-        if (rawValue == null) {
-            return null;
+        return async(() -> hget(connection.async(), serializer.serializeRaw(field))
+                .thenApply(rawValue -> rawValue == null ? null : serializer.<V>deserializeFromBytes(rawValue)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delAsync(F field) {
+        if (field == null) {
+            return completedFuture(false);
         }
-        return serializer.deserialize(rawValue);
+
+        return async(() -> {
+            String[] serializedFields = {serializer.serializeRaw(field)};
+            return nativeFieldExpiry()
+                    .thenCompose(nativeExpiry -> hdel(connection.async(), serializedFields, nativeExpiry))
+                    .thenApply(ignored -> true);
+        });
     }
 
     @Override
-    public boolean del(F field) {
+    public boolean putIfAbsent(F field, V value) {
+        return await(putIfAbsentAsync(field, value));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> putIfAbsentAsync(F field, V value) {
+        if (field == null || value == null) {
+            return completedFuture(false);
+        }
+
+        return async(() -> hsetnx(
+                connection.async(), serializer.serializeRaw(field), serializer.serializeToBytes(value)));
+    }
+
+    @Override
+    public boolean compareAndSet(F field, V expectedValue, V newValue) {
+        return await(compareAndSetAsync(field, expectedValue, newValue));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> compareAndSetAsync(F field, V expectedValue, V newValue) {
+        if (field == null || expectedValue == null && newValue == null) {
+            return completedFuture(false);
+        }
+
+        if (expectedValue == null) {
+            return putIfAbsentAsync(field, newValue);
+        }
+
+        return async(() -> {
+            byte[] serializedField = serializer.serializeRaw(field).getBytes(UTF_8);
+            byte[] serializedExpectedValue = serializer.serializeToBytes(expectedValue);
+            byte[][] arguments = newValue == null
+                    ? new byte[][] {serializedField, serializedExpectedValue}
+                    : new byte[][] {serializedField, serializedExpectedValue, serializer.serializeToBytes(newValue)};
+            return compareAndSetScript
+                    .<Long>execute(connection.async(), ScriptOutputType.INTEGER, expiryIndexKeys, arguments)
+                    .thenApply(replaced -> replaced == 1L);
+        });
+    }
+
+    @Override
+    public V computeIfAbsent(F field, Supplier<? extends V> defaultValue) {
+        return await(computeIfAbsentAsync(field, defaultValue));
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(F field, Supplier<? extends V> defaultValue) {
         if (field == null) {
-            return false;
+            return completedFuture(null);
         }
 
-        String serializedField = serializer.serializeRaw(field);
-        connection.sync().hdel(key, serializedField);
-        return true;
+        return async(() -> {
+            String serializedField = serializer.serializeRaw(field);
+            return hget(connection.async(), serializedField).thenCompose(rawValue -> {
+                if (rawValue != null) {
+                    return completedFuture(serializer.<V>deserializeFromBytes(rawValue));
+                }
+
+                V value = defaultValue.get();
+                if (value == null) {
+                    return completedFuture(null);
+                }
+                return putIfAbsentOrGet(serializedField, value, serializer.serializeToBytes(value));
+            });
+        });
+    }
+
+    /**
+     * Pipelines HSETNX with an HGET of the same field, so that a lost race costs no extra round trip.
+     * If the winning value has been deleted again in between, the claim is retried.
+     */
+    private CompletableFuture<V> putIfAbsentOrGet(String serializedField, V value, byte[] serializedValue) {
+        RedisAsyncCommands<String, byte[]> commands = connection.async();
+        CompletableFuture<Boolean> stored = hsetnx(commands, serializedField, serializedValue);
+        CompletableFuture<byte[]> current = hget(commands, serializedField);
+        return stored.thenCompose(claimed -> {
+            if (claimed) {
+                return completedFuture(value);
+            }
+
+            return current.thenCompose(rawValue -> rawValue == null
+                    ? putIfAbsentOrGet(serializedField, value, serializedValue)
+                    : completedFuture(serializer.<V>deserializeFromBytes(rawValue)));
+        });
     }
 
     @Override
-    public Stream<F> fields() {
-        List<String> rawFields = connection.sync().hkeys(key);
-        if (rawFields == null || rawFields.isEmpty()) {
-            return Stream.empty();
+    public long incrementField(F field, long delta) {
+        return await(incrementFieldAsync(field, delta));
+    }
+
+    @Override
+    public CompletableFuture<Long> incrementFieldAsync(F field, long delta) {
+        if (field == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Field must not be null."));
         }
-        return rawFields.stream().map(serializer::deserializeRaw);
+
+        return async(() -> {
+            String serializedField = serializer.serializeRaw(field);
+            return nativeFieldExpiry().thenCompose(nativeExpiry -> nativeExpiry
+                    ? connection.async().hincrby(key, serializedField, delta)
+                    : unexpiredCall(
+                            connection.async(),
+                            ScriptOutputType.INTEGER,
+                            "HINCRBY",
+                            serializedField.getBytes(UTF_8),
+                            Long.toString(delta).getBytes(UTF_8)));
+        });
     }
 
     @Override
-    public Stream<V> values() {
-        List<String> rawValues = connection.sync().hvals(key);
-        if (rawValues == null || rawValues.isEmpty()) {
-            return Stream.empty();
+    public Map<F, V> getAll(Collection<F> fields) {
+        return await(getAllAsync(fields));
+    }
+
+    @Override
+    public CompletableFuture<Map<F, V>> getAllAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(Map.of());
         }
-        return rawValues.stream().map(serializer::deserialize);
+
+        return async(() -> {
+            List<F> requestedFields = new ArrayList<>(fields.size());
+            List<String> serializedFields = new ArrayList<>(fields.size());
+            for (F field : fields) {
+                if (field != null) {
+                    requestedFields.add(field);
+                    serializedFields.add(serializer.serializeRaw(field));
+                }
+            }
+
+            String[] rawFields = serializedFields.toArray(String[]::new);
+            return nativeFieldExpiry()
+                    .thenCompose(nativeExpiry -> executeInChunks(rawFields.length, (commands, from, to) -> {
+                        String[] chunk = Arrays.copyOfRange(rawFields, from, to);
+                        return hmget(commands, chunk, nativeExpiry);
+                    }))
+                    .thenApply(chunks -> {
+                        Map<F, V> entries = new HashMap<>();
+                        int index = 0;
+                        for (List<byte[]> chunk : chunks) {
+                            for (byte[] rawValue : chunk) {
+                                F field = requestedFields.get(index++);
+                                if (rawValue != null) {
+                                    entries.put(field, serializer.deserializeFromBytes(rawValue));
+                                }
+                            }
+                        }
+                        return unmodifiableMap(entries);
+                    });
+        });
     }
 
     @Override
-    public Map<F, V> entries() {
-        Map<String, String> rawEntries = connection.sync().hgetall(key);
-        if (rawEntries == null || rawEntries.isEmpty()) {
-            return Map.of();
+    public boolean setAll(Map<F, V> entries) {
+        return await(setAllAsync(entries));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setAllAsync(Map<F, V> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return completedFuture(false);
         }
 
-        Map<F, V> entries = new HashMap<>();
-        for (Map.Entry<String, String> entry : rawEntries.entrySet()) {
-            String rawField = entry.getKey();
-            String rawValue = entry.getValue();
-            if (rawField == null || rawValue == null) {
-                continue;
+        return async(() -> {
+            List<String> serializedFields = new ArrayList<>(entries.size());
+            List<byte[]> serializedValues = new ArrayList<>(entries.size());
+            for (Map.Entry<F, V> entry : entries.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    serializedFields.add(serializer.serializeRaw(entry.getKey()));
+                    serializedValues.add(serializer.serializeToBytes(entry.getValue()));
+                }
             }
 
-            F field = serializer.deserializeRaw(rawField);
-            V value = serializer.deserialize(rawValue);
-            entries.put(field, value);
+            if (serializedFields.isEmpty()) {
+                return completedFuture(false);
+            }
+
+            return nativeFieldExpiry()
+                    .thenCompose(nativeExpiry -> executeInChunks(serializedFields.size(), (commands, from, to) -> {
+                        Map<String, byte[]> chunk = new LinkedHashMap<>();
+                        for (int index = from; index < to; index++) {
+                            chunk.put(serializedFields.get(index), serializedValues.get(index));
+                        }
+                        return hset(commands, chunk, nativeExpiry);
+                    }))
+                    .thenApply(ignored -> true);
+        });
+    }
+
+    @Override
+    public long delAll(Collection<F> fields) {
+        return await(delAllAsync(fields));
+    }
+
+    @Override
+    public CompletableFuture<Long> delAllAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(0L);
         }
+
+        return async(() -> {
+            String[] rawFields = fields.stream()
+                    .filter(Objects::nonNull)
+                    .map(serializer::serializeRaw)
+                    .toArray(String[]::new);
+            if (rawFields.length == 0) {
+                return completedFuture(0L);
+            }
+
+            return nativeFieldExpiry()
+                    .thenCompose(nativeExpiry -> executeInChunks(rawFields.length, (commands, from, to) -> {
+                        String[] chunk = Arrays.copyOfRange(rawFields, from, to);
+                        return hdel(commands, chunk, nativeExpiry);
+                    }))
+                    .thenApply(chunks -> chunks.stream().mapToLong(Long::longValue).sum());
+        });
+    }
+
+    /**
+     * Streams the fields of the hash lazily, scanning it page by page with HSCAN as the stream is
+     * consumed. Like HSCAN itself, a field may be returned more than once if the hash is modified
+     * while it is being scanned. Without hash-field expiration, fields past their deadline are purged
+     * before the scan starts, but fields expiring during a long scan may still be returned.
+     */
+    @Override
+    public Stream<F> fields() {
+        return scan(this::deserializeField);
+    }
+
+    @Override
+    public Stream<V> values() {
+        return scan(this::deserializeValue);
+    }
+
+    @Override
+    public Stream<Map.Entry<F, V>> entryStream() {
+        return scan(this::deserializeEntry);
+    }
+
+    F deserializeField(Map.Entry<String, byte[]> rawEntry) {
+        return serializer.deserializeRaw(rawEntry.getKey());
+    }
+
+    V deserializeValue(Map.Entry<String, byte[]> rawEntry) {
+        return serializer.deserializeFromBytes(rawEntry.getValue());
+    }
+
+    Map.Entry<F, V> deserializeEntry(Map.Entry<String, byte[]> rawEntry) {
+        return Map.entry(deserializeField(rawEntry), deserializeValue(rawEntry));
+    }
+
+    /**
+     * Fetches the HSCAN page following {@code cursor}. Fields past their deadline are purged before
+     * the first page of a scan.
+     */
+    CompletableFuture<MapScanCursor<String, byte[]>> scanPageAsync(ScanCursor cursor) {
+        CompletableFuture<Long> purged = cursor == ScanCursor.INITIAL ? purgeExpiredAsync() : completedFuture(0L);
+        return purged.thenCompose(ignored -> connection.async().hscan(key, cursor, scanArgs));
+    }
+
+    @Override
+    public Map<F, V> entries() {
+        Map<F, V> entries = new HashMap<>();
+        entryStream().forEach(entry -> entries.put(entry.getKey(), entry.getValue()));
         return unmodifiableMap(entries);
     }
 
+    @Override
+    public CompletableFuture<Map<F, V>> entriesAsync() {
+        return scanAsync(ScanCursor.INITIAL, new HashMap<>()).thenApply(Collections::unmodifiableMap);
+    }
+
+    private CompletableFuture<Map<F, V>> scanAsync(ScanCursor cursor, Map<F, V> entries) {
+        return scanPageAsync(cursor).thenCompose(result -> {
+            result.getMap().forEach((rawField, rawValue) -> {
+                if (rawField != null && rawValue != null) {
+                    entries.put(serializer.deserializeRaw(rawField), serializer.deserializeFromBytes(rawValue));
+                }
+            });
+
+            if (result.isFinished()) {
+                return completedFuture(entries);
+            }
+            return scanAsync(result, entries);
+        });
+    }
+
+    private <T> Stream<T> scan(Function<Map.Entry<String, byte[]>, T> mapper) {
+        return StreamSupport.stream(new ScanSpliterator<>(mapper), false);
+    }
+
+    /**
+     * Removes fields whose deadline has passed from a map which fell back to the expiry index, because
+     * the server does not support hash-field expiration. Such maps purge expired fields whenever they
+     * are read or claimed anyway, so this only reclaims the memory of maps which are rarely read.
+     *
+     * @return the number of purged fields
+     */
+    public long purgeExpired() {
+        return await(purgeExpiredAsync());
+    }
+
+    public CompletableFuture<Long> purgeExpiredAsync() {
+        return nativeFieldExpiry().thenCompose(nativeExpiry -> nativeExpiry
+                ? completedFuture(0L)
+                : purgeExpiredScript.<Long>execute(connection.async(), ScriptOutputType.INTEGER, expiryIndexKeys));
+    }
+
+    /**
+     * Returns whether the server expires hash fields itself (Redis 7.4+), which is probed once. Other
+     * servers get deadlines recorded in the expiry index, which writes of any instance then have to
+     * keep in sync, so they go through scripts instead of plain HSET and HDEL.
+     */
+    private CompletableFuture<Boolean> nativeFieldExpiry() {
+        CompletableFuture<Boolean> probe = nativeFieldExpiry;
+        if (probe != null) {
+            return probe;
+        }
+
+        return connection.async().hpexpiretime(key, PROBE_FIELD).toCompletableFuture().handle((ignored, exception) -> {
+            Throwable cause = exception == null ? null : unwrap(exception);
+            // Only an error reply settles it; other failures, like timeouts, get probed again.
+            if (cause != null && !(cause instanceof RedisCommandExecutionException)) {
+                throw new CompletionException(cause);
+            }
+
+            nativeFieldExpiry = completedFuture(cause == null);
+            return cause == null;
+        });
+    }
+
+    private static Throwable unwrap(Throwable exception) {
+        return exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+    }
+
+    private CompletableFuture<byte[]> hget(RedisAsyncCommands<String, byte[]> commands, String serializedField) {
+        return nativeFieldExpiry().thenCompose(nativeExpiry -> nativeExpiry
+                ? commands.hget(key, serializedField)
+                : unexpiredCall(commands, ScriptOutputType.VALUE, "HGET", serializedField.getBytes(UTF_8)));
+    }
+
+    private CompletableFuture<Boolean> hsetnx(
+            RedisAsyncCommands<String, byte[]> commands, String serializedField, byte[] serializedValue) {
+        return nativeFieldExpiry().thenCompose(nativeExpiry -> nativeExpiry
+                ? commands.hsetnx(key, serializedField, serializedValue)
+                : this.<Long>unexpiredCall(
+                                commands,
+                                ScriptOutputType.INTEGER,
+                                "HSETNX",
+                                serializedField.getBytes(UTF_8),
+                                serializedValue)
+                        .thenApply(stored -> stored == 1L));
+    }
+
+    private CompletionStage<List<byte[]>> hmget(
+            RedisAsyncCommands<String, byte[]> commands, String[] serializedFields, boolean nativeExpiry) {
+        if (nativeExpiry) {
+            return commands.hmget(key, serializedFields).thenApply(rawEntries -> rawEntries.stream()
+                    .map(rawEntry -> rawEntry.getValueOrElse(null))
+                    .toList());
+        }
+
+        byte[][] arguments = new byte[serializedFields.length][];
+        for (int index = 0; index < serializedFields.length; index++) {
+            arguments[index] = serializedFields[index].getBytes(UTF_8);
+        }
+        return this.<List<byte[]>>unexpiredCall(commands, ScriptOutputType.MULTI, "HMGET", arguments);
+    }
+
+    /**
+     * Runs a hash command in a script which first purges the fields past their deadline, for servers
+     * without hash-field expiration.
+     */
+    private <T> CompletableFuture<T> unexpiredCall(
+            RedisAsyncCommands<String, byte[]> commands, ScriptOutputType type, String command, byte[]... arguments) {
+        byte[][] scriptArguments = new byte[arguments.length + 1][];
+        scriptArguments[0] = command.getBytes(UTF_8);
+        System.arraycopy(arguments, 0, scriptArguments, 1, arguments.length);
+        return unexpiredCallScript.execute(commands, type, expiryIndexKeys, scriptArguments);
+    }
+
+    private CompletionStage<Long> hset(
+            RedisAsyncCommands<String, byte[]> commands, Map<String, byte[]> entries, boolean nativeExpiry) {
+        if (nativeExpiry) {
+            return commands.hset(key, entries);
+        }
+
+        byte[][] arguments = new byte[entries.size() * 2][];
+        int index = 0;
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            arguments[index++] = entry.getKey().getBytes(UTF_8);
+            arguments[index++] = entry.getValue();
+        }
+        return setFieldsScript.execute(commands, ScriptOutputType.INTEGER, expiryIndexKeys, arguments);
+    }
+
+    private CompletionStage<Long> hdel(
+            RedisAsyncCommands<String, byte[]> commands, String[] serializedFields, boolean nativeExpiry) {
+        if (nativeExpiry) {
+            return commands.hdel(key, serializedFields);
+        }
+
+        byte[][] arguments = new byte[serializedFields.length][];
+        for (int index = 0; index < serializedFields.length; index++) {
+            arguments[index] = serializedFields[index].getBytes(UTF_8);
+        }
+        return delFieldsScript.execute(commands, ScriptOutputType.INTEGER, expiryIndexKeys, arguments);
+    }
+
     @Override
     public long size() {
-        return connection.sync().hlen(key);
+        return await(sizeAsync());
+    }
+
+    @Override
+    public CompletableFuture<Long> sizeAsync() {
+        return nativeFieldExpiry().thenCompose(nativeExpiry -> nativeExpiry
+                ? connection.async().hlen(key)
+                : unexpiredCall(connection.async(), ScriptOutputType.INTEGER, "HLEN"));
+    }
+
+    /**
+     * Issues one command per chunk of at most {@code fieldsPerCommand} fields without waiting in
+     * between, so that all chunks share the same round trip, and collects their results in order.
+     */
+    private <T> CompletableFuture<List<T>> executeInChunks(int count, ChunkCommand<T> chunkCommand) {
+        RedisAsyncCommands<String, byte[]> commands = connection.async();
+        List<CompletableFuture<T>> futures = new ArrayList<>((count + fieldsPerCommand - 1) / fieldsPerCommand);
+        for (int from = 0; from < count; from += fieldsPerCommand) {
+            futures.add(chunkCommand
+                    .execute(commands, from, Math.min(count, from + fieldsPerCommand))
+                    .toCompletableFuture());
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        return RedisFutures.await(future, connection.getTimeout());
+    }
+
+    /**
+     * Fetches one HSCAN page at a time, only once the previous one has been consumed, and deserializes
+     * entries one by one as they are handed over. Abandoning the stream simply stops fetching pages.
+     */
+    private final class ScanSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Function<Map.Entry<String, byte[]>, T> mapper;
+        private ScanCursor cursor = ScanCursor.INITIAL;
+        private Iterator<Map.Entry<String, byte[]>> page = Collections.emptyIterator();
+
+        ScanSpliterator(Function<Map.Entry<String, byte[]>, T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (true) {
+                while (page.hasNext()) {
+                    Map.Entry<String, byte[]> rawEntry = page.next();
+                    if (rawEntry.getKey() != null && rawEntry.getValue() != null) {
+                        action.accept(mapper.apply(rawEntry));
+                        return true;
+                    }
+                }
+
+                if (cursor.isFinished()) {
+                    return false;
+                }
+
+                MapScanCursor<String, byte[]> result = await(scanPageAsync(cursor));
+                cursor = result;
+                page = result.getMap().entrySet().iterator();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkCommand<T> {
+
+        CompletionStage<T> execute(RedisAsyncCommands<String, byte[]> commands, int from, int to);
     }
 }
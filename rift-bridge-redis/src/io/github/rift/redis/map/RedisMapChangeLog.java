@@ -0,0 +1,105 @@
+package io.github.rift.redis.map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.lettuce.core.Range;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Bounded server-side log of the changes of a map, which lets cached maps catch up on updates they
+ * missed instead of reloading the whole map.
+ *
+ * <p>Every change gets the next version of the map. The log is a sorted set of the changed fields
+ * scored by the version of their latest change, so a field changed many times takes a single slot.
+ * Once the log holds more than {@code capacity} fields, the oldest are trimmed and the highest trimmed
+ * version is remembered, so that readers can tell when the log no longer covers their gap.
+ */
+public final class RedisMapChangeLog {
+
+    private static final String RECORD_SCRIPT =
+            """
+            local version = redis.call('HINCRBY', KEYS[1], 'current', 1)
+            for index = 2, #ARGV do
+                redis.call('ZADD', KEYS[2], version, ARGV[index])
+            end
+            local excess = redis.call('ZCARD', KEYS[2]) - tonumber(ARGV[1])
+            if excess > 0 then
+                local trimmed = redis.call('ZRANGE', KEYS[2], excess - 1, excess - 1, 'WITHSCORES')
+                redis.call('ZREMRANGEBYRANK', KEYS[2], 0, excess - 1)
+                redis.call('HSET', KEYS[1], 'trimmed', trimmed[2])
+            end
+            return version
+            """;
+
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final String versionKey;
+    private final String changesKey;
+    private final String[] keys;
+    private final byte[] capacity;
+    private final RedisScript recordScript;
+
+    private RedisMapChangeLog(String key, StatefulRedisConnection<String, byte[]> connection, int capacity) {
+        this.connection = connection;
+        this.versionKey = RedisMap.slotKey(key, ":version");
+        this.changesKey = RedisMap.slotKey(key, ":changes");
+        this.keys = new String[] {versionKey, changesKey};
+        this.capacity = Integer.toString(capacity).getBytes(UTF_8);
+        this.recordScript = RedisScript.create(RECORD_SCRIPT, connection);
+    }
+
+    public static @NotNull RedisMapChangeLog create(
+            @NotNull String key, @NotNull StatefulRedisConnection<String, byte[]> connection, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, got %d.".formatted(capacity));
+        }
+        return new RedisMapChangeLog(key, connection, capacity);
+    }
+
+    /**
+     * Records a change of the given serialized fields, which share a single version.
+     *
+     * @return the version of the map including the change
+     */
+    public @NotNull CompletableFuture<Long> record(@NotNull String... serializedFields) {
+        byte[][] arguments = new byte[serializedFields.length + 1][];
+        arguments[0] = capacity;
+        for (int index = 0; index < serializedFields.length; index++) {
+            arguments[index + 1] = serializedFields[index].getBytes(UTF_8);
+        }
+        return recordScript.execute(connection.async(), ScriptOutputType.INTEGER, keys, arguments);
+    }
+
+    public @NotNull CompletableFuture<Long> version() {
+        return connection.async().hget(versionKey, "current").toCompletableFuture().thenApply(RedisMapChangeLog::parse);
+    }
+
+    /**
+     * Returns the fields changed after {@code version}. The changes are read before the trim mark, so
+     * a trim happening in between is reported rather than missed.
+     */
+    public @NotNull CompletableFuture<Changes> changesSince(long version) {
+        RedisAsyncCommands<String, byte[]> commands = connection.async();
+        CompletableFuture<List<byte[]>> changedFields = commands
+                .zrangebyscore(changesKey, Range.from(Range.Boundary.excluding(version), Range.Boundary.unbounded()))
+                .toCompletableFuture();
+        CompletableFuture<byte[]> trimmedVersion = commands.hget(versionKey, "trimmed").toCompletableFuture();
+        return changedFields.thenCombine(trimmedVersion, (fields, trimmed) -> new Changes(
+                parse(trimmed) > version,
+                fields.stream().map(field -> new String(field, UTF_8)).toList()));
+    }
+
+    private static long parse(byte[] value) {
+        return value == null ? 0L : Long.parseLong(new String(value, UTF_8));
+    }
+
+    /**
+     * @param trimmed Whether changes after the requested version have been trimmed from the log
+     * @param fields  The serialized fields changed after the requested version
+     */
+    public record Changes(boolean trimmed, @NotNull List<String> fields) {}
+}
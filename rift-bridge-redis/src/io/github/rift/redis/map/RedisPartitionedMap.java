@@ -0,0 +1,425 @@
+package io.github.rift.redis.map;
+
+import static io.github.rift.redis.map.RedisFutures.async;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import io.github.rift.map.RiftMap;
+import io.github.rift.serializer.Serializer;
+import io.lettuce.core.MapScanCursor;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.api.StatefulRedisConnection;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link RiftMap} spreading one logical map across several Redis hashes named {@code <key>:<index>},
+ * so that no single hash grows into a big key and, on a cluster, the partitions land on different
+ * slots. Fields are assigned to partitions by the hash of their serialized form, which is stable
+ * across instances. Bulk operations and whole-map reads are issued to all partitions at once.
+ *
+ * <p>The number of partitions is part of the data layout, so changing it requires migrating the map.
+ */
+public final class RedisPartitionedMap<S extends Serializable, F, V extends S> implements RiftMap<S, F, V> {
+
+    private final Serializer serializer;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final List<RedisMap<S, F, V>> partitions;
+
+    private RedisPartitionedMap(
+            Serializer serializer,
+            StatefulRedisConnection<String, byte[]> connection,
+            List<RedisMap<S, F, V>> partitions) {
+        this.serializer = serializer;
+        this.connection = connection;
+        this.partitions = partitions;
+    }
+
+    public static <S extends Serializable, F, V extends S> RedisPartitionedMap<S, F, V> create(
+            String key, Serializer serializer, StatefulRedisConnection<String, byte[]> connection, int partitionCount) {
+        return create(
+                key,
+                serializer,
+                connection,
+                partitionCount,
+                RedisMap.DEFAULT_FIELDS_PER_COMMAND,
+                RedisMap.DEFAULT_SCAN_COUNT);
+    }
+
+    public static <S extends Serializable, F, V extends S> RedisPartitionedMap<S, F, V> create(
+            String key,
+            Serializer serializer,
+            StatefulRedisConnection<String, byte[]> connection,
+            int partitionCount,
+            int fieldsPerCommand,
+            int scanCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Partition count must be positive, got %d.".formatted(partitionCount));
+        }
+
+        List<RedisMap<S, F, V>> partitions = new ArrayList<>(partitionCount);
+        for (int index = 0; index < partitionCount; index++) {
+            partitions.add(RedisMap.create(key + ':' + index, serializer, connection, fieldsPerCommand, scanCount));
+        }
+        return new RedisPartitionedMap<>(serializer, connection, List.copyOf(partitions));
+    }
+
+    @Override
+    public boolean set(F field, V value) {
+        return partitionOf(field).set(field, value);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setAsync(F field, V value) {
+        return async(() -> partitionOf(field).setAsync(field, value));
+    }
+
+    @Override
+    public boolean set(F field, V value, Duration ttl) {
+        return partitionOf(field).set(field, value, ttl);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setAsync(F field, V value, Duration ttl) {
+        return async(() -> partitionOf(field).setAsync(field, value, ttl));
+    }
+
+    @Override
+    public V get(F field) {
+        return partitionOf(field).get(field);
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(F field) {
+        return async(() -> partitionOf(field).getAsync(field));
+    }
+
+    @Override
+    public boolean del(F field) {
+        return partitionOf(field).del(field);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delAsync(F field) {
+        return async(() -> partitionOf(field).delAsync(field));
+    }
+
+    @Override
+    public boolean putIfAbsent(F field, V value) {
+        return partitionOf(field).putIfAbsent(field, value);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> putIfAbsentAsync(F field, V value) {
+        return async(() -> partitionOf(field).putIfAbsentAsync(field, value));
+    }
+
+    @Override
+    public boolean compareAndSet(F field, V expectedValue, V newValue) {
+        return partitionOf(field).compareAndSet(field, expectedValue, newValue);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> compareAndSetAsync(F field, V expectedValue, V newValue) {
+        return async(() -> partitionOf(field).compareAndSetAsync(field, expectedValue, newValue));
+    }
+
+    @Override
+    public V computeIfAbsent(F field, Supplier<? extends V> defaultValue) {
+        return partitionOf(field).computeIfAbsent(field, defaultValue);
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(F field, Supplier<? extends V> defaultValue) {
+        return async(() -> partitionOf(field).computeIfAbsentAsync(field, defaultValue));
+    }
+
+    @Override
+    public long incrementField(F field, long delta) {
+        return partitionOf(field).incrementField(field, delta);
+    }
+
+    @Override
+    public CompletableFuture<Long> incrementFieldAsync(F field, long delta) {
+        return async(() -> partitionOf(field).incrementFieldAsync(field, delta));
+    }
+
+    @Override
+    public Map<F, V> getAll(Collection<F> fields) {
+        return await(getAllAsync(fields));
+    }
+
+    @Override
+    public CompletableFuture<Map<F, V>> getAllAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(Map.of());
+        }
+
+        return async(() -> {
+            List<List<F>> fieldsByPartition = groupByPartition(fields);
+
+            return acrossPartitions(index -> {
+                        List<F> partitionFields = fieldsByPartition.get(index);
+                        return partitionFields.isEmpty()
+                                ? completedFuture(Map.<F, V>of())
+                                : partitions.get(index).getAllAsync(partitionFields);
+                    })
+                    .thenApply(RedisPartitionedMap::merge);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<F, Long>> expirationsAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(Map.of());
+        }
+
+        return async(() -> {
+            List<List<F>> fieldsByPartition = groupByPartition(fields);
+
+            return acrossPartitions(index -> {
+                        List<F> partitionFields = fieldsByPartition.get(index);
+                        return partitionFields.isEmpty()
+                                ? completedFuture(Map.<F, Long>of())
+                                : partitions.get(index).expirationsAsync(partitionFields);
+                    })
+                    .thenApply(RedisPartitionedMap::merge);
+        });
+    }
+
+    @Override
+    public boolean setAll(Map<F, V> entries) {
+        return await(setAllAsync(entries));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setAllAsync(Map<F, V> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return completedFuture(false);
+        }
+
+        return async(() -> {
+            List<Map<F, V>> entriesByPartition = new ArrayList<>(partitions.size());
+            for (int index = 0; index < partitions.size(); index++) {
+                entriesByPartition.add(new LinkedHashMap<>());
+            }
+            entries.forEach((field, value) -> {
+                if (field != null && value != null) {
+                    entriesByPartition.get(partitionIndexOf(field)).put(field, value);
+                }
+            });
+
+            return acrossPartitions(index -> {
+                        Map<F, V> partitionEntries = entriesByPartition.get(index);
+                        return partitionEntries.isEmpty()
+                                ? completedFuture(false)
+                                : partitions.get(index).setAllAsync(partitionEntries);
+                    })
+                    .thenApply(results -> results.contains(true));
+        });
+    }
+
+    @Override
+    public long delAll(Collection<F> fields) {
+        return await(delAllAsync(fields));
+    }
+
+    @Override
+    public CompletableFuture<Long> delAllAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(0L);
+        }
+
+        return async(() -> {
+            List<List<F>> fieldsByPartition = groupByPartition(fields);
+
+            return acrossPartitions(index -> {
+                        List<F> partitionFields = fieldsByPartition.get(index);
+                        return partitionFields.isEmpty()
+                                ? completedFuture(0L)
+                                : partitions.get(index).delAllAsync(partitionFields);
+                    })
+                    .thenApply(RedisPartitionedMap::sum);
+        });
+    }
+
+    /**
+     * Streams the fields of all partitions lazily, scanning the partitions concurrently: each one
+     * always has its next HSCAN page in flight while the pages already received are consumed.
+     */
+    @Override
+    public Stream<F> fields() {
+        return scan(partitions.get(0)::deserializeField);
+    }
+
+    @Override
+    public Stream<V> values() {
+        return scan(partitions.get(0)::deserializeValue);
+    }
+
+    @Override
+    public Stream<Map.Entry<F, V>> entryStream() {
+        return scan(partitions.get(0)::deserializeEntry);
+    }
+
+    private <T> Stream<T> scan(Function<Map.Entry<String, byte[]>, T> mapper) {
+        return StreamSupport.stream(new PartitionScanSpliterator<>(mapper), false);
+    }
+
+    @Override
+    public Map<F, V> entries() {
+        return await(entriesAsync());
+    }
+
+    @Override
+    public CompletableFuture<Map<F, V>> entriesAsync() {
+        return acrossPartitions(index -> partitions.get(index).entriesAsync()).thenApply(RedisPartitionedMap::merge);
+    }
+
+    public long purgeExpired() {
+        return await(purgeExpiredAsync());
+    }
+
+    public CompletableFuture<Long> purgeExpiredAsync() {
+        return acrossPartitions(index -> partitions.get(index).purgeExpiredAsync()).thenApply(RedisPartitionedMap::sum);
+    }
+
+    @Override
+    public long size() {
+        return await(sizeAsync());
+    }
+
+    @Override
+    public CompletableFuture<Long> sizeAsync() {
+        return acrossPartitions(index -> partitions.get(index).sizeAsync()).thenApply(RedisPartitionedMap::sum);
+    }
+
+    private List<List<F>> groupByPartition(Collection<F> fields) {
+        List<List<F>> fieldsByPartition = new ArrayList<>(partitions.size());
+        for (int index = 0; index < partitions.size(); index++) {
+            fieldsByPartition.add(new ArrayList<>());
+        }
+        for (F field : fields) {
+            if (field != null) {
+                fieldsByPartition.get(partitionIndexOf(field)).add(field);
+            }
+        }
+        return fieldsByPartition;
+    }
+
+    private RedisMap<S, F, V> partitionOf(F field) {
+        return field == null ? partitions.get(0) : partitions.get(partitionIndexOf(field));
+    }
+
+    private int partitionIndexOf(F field) {
+        return partitionIndex(serializer.serializeRaw(field), partitions.size());
+    }
+
+    static int partitionIndex(String serializedField, int partitionCount) {
+        int hash = serializedField.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), partitionCount);
+    }
+
+    /**
+     * Issues the operation to every partition without waiting in between, and collects the results
+     * in partition order.
+     */
+    private <T> CompletableFuture<List<T>> acrossPartitions(IntFunction<CompletableFuture<T>> operation) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(partitions.size());
+        for (int index = 0; index < partitions.size(); index++) {
+            int partitionIndex = index;
+            futures.add(async(() -> operation.apply(partitionIndex)));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        return RedisFutures.await(future, connection.getTimeout());
+    }
+
+    private static <F, V> Map<F, V> merge(List<Map<F, V>> partitionEntries) {
+        Map<F, V> entries = new HashMap<>();
+        partitionEntries.forEach(entries::putAll);
+        return unmodifiableMap(entries);
+    }
+
+    private static long sum(List<Long> partitionCounts) {
+        return partitionCounts.stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Requests the first page of every partition up front, then takes turns between the partitions
+     * still being scanned, requesting the next page of a partition as soon as its current page has
+     * been received. Abandoning the stream leaves at most one page per partition unconsumed.
+     */
+    private final class PartitionScanSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Function<Map.Entry<String, byte[]>, T> mapper;
+        private final Deque<PartitionScan<S, F, V>> scans = new ArrayDeque<>();
+        private Iterator<Map.Entry<String, byte[]>> page = Collections.emptyIterator();
+        private boolean started;
+
+        PartitionScanSpliterator(Function<Map.Entry<String, byte[]>, T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!started) {
+                started = true;
+                for (RedisMap<S, F, V> partition : partitions) {
+                    scans.add(new PartitionScan<>(partition, partition.scanPageAsync(ScanCursor.INITIAL)));
+                }
+            }
+
+            while (true) {
+                while (page.hasNext()) {
+                    Map.Entry<String, byte[]> rawEntry = page.next();
+                    if (rawEntry.getKey() != null && rawEntry.getValue() != null) {
+                        action.accept(mapper.apply(rawEntry));
+                        return true;
+                    }
+                }
+
+                PartitionScan<S, F, V> scan = scans.poll();
+                if (scan == null) {
+                    return false;
+                }
+
+                MapScanCursor<String, byte[]> result = await(scan.page());
+                if (!result.isFinished()) {
+                    scans.add(new PartitionScan<>(scan.partition(), scan.partition().scanPageAsync(result)));
+                }
+                page = result.getMap().entrySet().iterator();
+            }
+        }
+    }
+
+    /**
+     * @param page The next page of the partition, requested but possibly not received yet
+     */
+    private record PartitionScan<S extends Serializable, F, V extends S>(
+            RedisMap<S, F, V> partition, CompletableFuture<MapScanCursor<String, byte[]>> page) {}
+}
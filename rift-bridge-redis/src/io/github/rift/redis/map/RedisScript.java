@@ -0,0 +1,40 @@
+package io.github.rift.redis.map;
+
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Lua script executed by its digest with EVALSHA. The first time a server does not know the script
+ * yet, it is sent once with EVAL, which also loads it into the script cache of that server.
+ */
+final class RedisScript {
+
+    private final String source;
+    private final String digest;
+
+    private RedisScript(String source, String digest) {
+        this.source = source;
+        this.digest = digest;
+    }
+
+    static RedisScript create(String source, StatefulRedisConnection<String, byte[]> connection) {
+        return new RedisScript(source, connection.async().digest(source));
+    }
+
+    <T> CompletableFuture<T> execute(
+            RedisAsyncCommands<String, byte[]> commands, ScriptOutputType type, String[] keys, byte[]... arguments) {
+        return commands.<T>evalsha(digest, type, keys, arguments)
+                .toCompletableFuture()
+                .exceptionallyCompose(exception -> {
+                    Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+                    if (cause instanceof RedisNoScriptException) {
+                        return commands.<T>eval(source, type, keys, arguments).toCompletableFuture();
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+}
@@ -0,0 +1,454 @@
+package io.github.rift.redis.map;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.logging.Level.WARNING;
+
+import io.github.rift.cache.CacheProvider;
+import io.github.rift.map.CachedMap;
+import io.github.rift.map.CachedMapOptions;
+import io.github.rift.map.CachedMapUpdate;
+import io.github.rift.map.RiftMap;
+import io.github.rift.redis.RedisRiftCodec;
+import io.github.rift.serializer.Serializer;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import java.io.Closeable;
+import java.io.Serializable;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link CachedMap} kept coherent by Redis itself through server-assisted client-side caching. The
+ * map reads and writes over a dedicated RESP3 connection with {@code CLIENT TRACKING} enabled, so
+ * Redis pushes an invalidation whenever a hash read by this instance is modified, whoever writes it.
+ * No updates are published, and writes through {@link RedisMap} or plain Redis commands are seen too.
+ *
+ * <p>Redis tracks whole keys, so a write to any field drops the cached fields of its hash. Partitioning
+ * the map narrows invalidations down to one partition. Missing fields are loaded on demand and the
+ * cache provider may be bounded. The cache is dropped while the connection is down and once tracking
+ * has been enabled again after a reconnect.
+ */
+public final class RedisTrackingCachedMap<S extends Serializable, P extends CachedMapUpdate, F, V extends S>
+        implements CachedMap<S, P, F, V>, Closeable {
+
+    private static final Logger logger = Logger.getLogger(RedisTrackingCachedMap.class.getSimpleName());
+
+    private final String key;
+    private final Serializer serializer;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final RiftMap<S, F, V> map;
+    private final CacheProvider<F, V> cacheProvider;
+    private final int partitionCount;
+    private final AtomicLongArray epochs;
+
+    private RedisTrackingCachedMap(
+            String key,
+            Serializer serializer,
+            StatefulRedisConnection<String, byte[]> connection,
+            RiftMap<S, F, V> map,
+            CacheProvider<F, V> cacheProvider,
+            int partitionCount) {
+        this.key = key;
+        this.serializer = serializer;
+        this.connection = connection;
+        this.map = map;
+        this.cacheProvider = cacheProvider;
+        this.partitionCount = partitionCount;
+        this.epochs = new AtomicLongArray(partitionCount);
+    }
+
+    public static <S extends Serializable, P extends CachedMapUpdate, F, V extends S>
+            RedisTrackingCachedMap<S, P, F, V> create(
+                    String key, Serializer serializer, RedisClient redisClient, CacheProvider<F, V> cacheProvider) {
+        return create(key, serializer, redisClient, cacheProvider, 1);
+    }
+
+    /**
+     * Creates a map over a new connection of {@code redisClient}, which is closed along with the map.
+     * The client must speak RESP3, the default against Redis 6 and later, and the partition count must
+     * match the one the map is written with.
+     */
+    public static <S extends Serializable, P extends CachedMapUpdate, F, V extends S>
+            RedisTrackingCachedMap<S, P, F, V> create(
+                    String key,
+                    Serializer serializer,
+                    RedisClient redisClient,
+                    CacheProvider<F, V> cacheProvider,
+                    int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Partition count must be positive, got %d.".formatted(partitionCount));
+        }
+
+        StatefulRedisConnection<String, byte[]> connection = redisClient.connect(RedisRiftCodec.INSTANCE);
+        RiftMap<S, F, V> map = partitionCount == 1
+                ? RedisMap.create(key, serializer, connection)
+                : RedisPartitionedMap.create(key, serializer, connection, partitionCount);
+
+        RedisTrackingCachedMap<S, P, F, V> cachedMap =
+                new RedisTrackingCachedMap<>(key, serializer, connection, map, cacheProvider, partitionCount);
+        connection.addListener(cachedMap::onPushMessage);
+        connection.addListener(cachedMap.new ConnectionListener());
+        try {
+            connection.sync().clientTracking(TrackingArgs.Builder.enabled());
+        } catch (RuntimeException exception) {
+            connection.close();
+            throw exception;
+        }
+        return cachedMap;
+    }
+
+    @Override
+    public void set(F field, V value) {
+        map.set(field, value);
+        invalidate(field);
+    }
+
+    @Override
+    public CompletableFuture<Void> setAsync(F field, V value) {
+        return map.setAsync(field, value).thenAccept(ignored -> invalidate(field));
+    }
+
+    @Override
+    public void set(F field, V value, Duration ttl) {
+        map.set(field, value, ttl);
+        invalidate(field);
+    }
+
+    @Override
+    public CompletableFuture<Void> setAsync(F field, V value, Duration ttl) {
+        return map.setAsync(field, value, ttl).thenAccept(ignored -> invalidate(field));
+    }
+
+    @Override
+    public V get(F field) {
+        if (field == null) {
+            return null;
+        }
+
+        V value = cacheProvider.get(field);
+        if (value != null) {
+            return value;
+        }
+
+        int partition = partitionOf(field);
+        long epoch = epochs.get(partition);
+        value = map.get(field);
+        if (value != null) {
+            cache(field, value, partition, epoch);
+        }
+        return value;
+    }
+
+    @Override
+    public void del(F field) {
+        map.del(field);
+        invalidate(field);
+    }
+
+    @Override
+    public CompletableFuture<Void> delAsync(F field) {
+        return map.delAsync(field).thenAccept(ignored -> invalidate(field));
+    }
+
+    @Override
+    public boolean putIfAbsent(F field, V value) {
+        return await(putIfAbsentAsync(field, value));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> putIfAbsentAsync(F field, V value) {
+        return map.putIfAbsentAsync(field, value).thenApply(stored -> invalidated(field, stored));
+    }
+
+    @Override
+    public boolean compareAndSet(F field, V expectedValue, V newValue) {
+        return await(compareAndSetAsync(field, expectedValue, newValue));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> compareAndSetAsync(F field, V expectedValue, V newValue) {
+        return map.compareAndSetAsync(field, expectedValue, newValue)
+                .thenApply(replaced -> invalidated(field, replaced));
+    }
+
+    @Override
+    public V computeIfAbsent(F field, Supplier<? extends V> defaultValue) {
+        return await(computeIfAbsentAsync(field, defaultValue));
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(F field, Supplier<? extends V> defaultValue) {
+        if (field == null) {
+            return completedFuture(null);
+        }
+
+        V cachedValue = cacheProvider.get(field);
+        if (cachedValue != null) {
+            return completedFuture(cachedValue);
+        }
+        return map.computeIfAbsentAsync(field, defaultValue).thenApply(value -> invalidated(field, value));
+    }
+
+    @Override
+    public Map<F, V> getAll(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<F, V> entries = new HashMap<>();
+        List<F> missingFields = new ArrayList<>();
+        for (F field : fields) {
+            if (field == null) {
+                continue;
+            }
+
+            V value = cacheProvider.get(field);
+            if (value != null) {
+                entries.put(field, value);
+            } else {
+                missingFields.add(field);
+            }
+        }
+
+        if (!missingFields.isEmpty()) {
+            long[] startEpochs = new long[partitionCount];
+            for (int partition = 0; partition < partitionCount; partition++) {
+                startEpochs[partition] = epochs.get(partition);
+            }
+
+            map.getAll(missingFields).forEach((field, value) -> {
+                int partition = partitionOf(field);
+                cache(field, value, partition, startEpochs[partition]);
+                entries.put(field, value);
+            });
+        }
+        return unmodifiableMap(entries);
+    }
+
+    @Override
+    public void setAll(Map<F, V> entries) {
+        await(setAllAsync(entries));
+    }
+
+    @Override
+    public CompletableFuture<Void> setAllAsync(Map<F, V> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return completedFuture(null);
+        }
+
+        return map.setAllAsync(entries).thenAccept(ignored -> entries.keySet().forEach(this::invalidate));
+    }
+
+    @Override
+    public void delAll(Collection<F> fields) {
+        await(delAllAsync(fields));
+    }
+
+    @Override
+    public CompletableFuture<Void> delAllAsync(Collection<F> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return completedFuture(null);
+        }
+
+        return map.delAllAsync(fields).thenAccept(ignored -> fields.forEach(this::invalidate));
+    }
+
+    @Override
+    public Iterable<F> keys() {
+        return cacheProvider.keys();
+    }
+
+    @Override
+    public Stream<V> values() {
+        return map.values();
+    }
+
+    /**
+     * Only reads the local cache for {@link CachedMapOptions.ReadConsistency#LOCAL LOCAL}, since the
+     * cache never holds more than the fields read so far and carries no version to verify.
+     */
+    @Override
+    public Stream<V> values(CachedMapOptions.ReadConsistency consistency) {
+        if (consistency != CachedMapOptions.ReadConsistency.LOCAL) {
+            return map.values();
+        }
+        return StreamSupport.stream(cacheProvider.values().spliterator(), false);
+    }
+
+    @Override
+    public long size() {
+        return map.size();
+    }
+
+    @Override
+    public long size(CachedMapOptions.ReadConsistency consistency) {
+        return consistency == CachedMapOptions.ReadConsistency.LOCAL ? cacheProvider.size() : map.size();
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+        cacheProvider.clear();
+    }
+
+    /**
+     * Caches a loaded value unless its partition has been invalidated since the load started. The
+     * epoch is checked again after the put, since an invalidation may have swept the partition just
+     * before the value landed.
+     */
+    private void cache(F field, V value, int partition, long epoch) {
+        if (epochs.get(partition) != epoch) {
+            return;
+        }
+
+        cacheProvider.put(field, value);
+        if (epochs.get(partition) != epoch) {
+            cacheProvider.remove(field);
+        }
+    }
+
+    /**
+     * Drops the field after a write of this instance, together with loads of its partition in flight.
+     * Redis may push the invalidation of our own write only after its reply, so reads following the
+     * write must not be answered from the cache meanwhile.
+     */
+    private void invalidate(F field) {
+        if (field == null) {
+            return;
+        }
+
+        epochs.incrementAndGet(partitionOf(field));
+        cacheProvider.remove(field);
+    }
+
+    private <T> T invalidated(F field, T result) {
+        invalidate(field);
+        return result;
+    }
+
+    private void invalidatePartition(int partition) {
+        epochs.incrementAndGet(partition);
+        if (partitionCount == 1) {
+            cacheProvider.clear();
+            return;
+        }
+
+        List<F> fields = new ArrayList<>();
+        for (F field : cacheProvider.keys()) {
+            if (partitionOf(field) == partition) {
+                fields.add(field);
+            }
+        }
+        cacheProvider.removeAll(fields);
+    }
+
+    private void invalidateAll() {
+        for (int partition = 0; partition < partitionCount; partition++) {
+            epochs.incrementAndGet(partition);
+        }
+        cacheProvider.clear();
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!message.getType().equals("invalidate")) {
+            return;
+        }
+
+        // A null key list means Redis flushed its keys or dropped our tracking state.
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        if (!(content.get(1) instanceof List<?> invalidatedKeys)) {
+            invalidateAll();
+            return;
+        }
+
+        for (Object invalidatedKey : invalidatedKeys) {
+            int partition = partitionOfKey((String) invalidatedKey);
+            if (partition >= 0) {
+                invalidatePartition(partition);
+            }
+        }
+    }
+
+    private int partitionOf(F field) {
+        if (partitionCount == 1) {
+            return 0;
+        }
+        return RedisPartitionedMap.partitionIndex(serializer.serializeRaw(field), partitionCount);
+    }
+
+    private int partitionOfKey(String invalidatedKey) {
+        if (partitionCount == 1) {
+            return invalidatedKey.equals(key) ? 0 : -1;
+        }
+
+        if (!invalidatedKey.startsWith(key) || invalidatedKey.length() <= key.length() + 1
+                || invalidatedKey.charAt(key.length()) != ':') {
+            return -1;
+        }
+
+        try {
+            int partition = Integer.parseInt(invalidatedKey.substring(key.length() + 1));
+            return partition < partitionCount ? partition : -1;
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Tracking does not survive a reconnect, and invalidations are lost while disconnected. Reads
+     * served in between may have been untracked, so the cache is dropped once more when tracking is
+     * back on.
+     */
+    private final class ConnectionListener implements RedisConnectionStateListener {
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> channelHandler) {
+            if (channelHandler == connection) {
+                invalidateAll();
+            }
+        }
+
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> channelHandler, SocketAddress socketAddress) {
+            if (channelHandler != connection) {
+                return;
+            }
+
+            connection.async().clientTracking(TrackingArgs.Builder.enabled()).whenComplete((ignored, exception) -> {
+                invalidateAll();
+                if (exception != null) {
+                    logger.log(WARNING, "Could not enable tracking of map %s again.".formatted(key), exception);
+                }
+            });
+        }
+    }
+}
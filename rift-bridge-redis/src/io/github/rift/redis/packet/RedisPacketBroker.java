@@ -15,23 +15,63 @@ public interface RedisPacketBroker<P extends Packet> extends PacketBroker<P> {
             String identity,
             Serializer serializer,
             Duration requestCleanupInterval,
-            StatefulRedisConnection<String, String> connection,
-            StatefulRedisPubSubConnection<String, String> pubSubConnection) {
+            StatefulRedisConnection<String, byte[]> connection,
+            StatefulRedisPubSubConnection<String, byte[]> pubSubConnection,
+            RedisPublishPipeline publishPipeline,
+            RedisPacketDispatcher packetDispatcher) {
         return new RedisPacketBrokerImpl<>(
                 wisp,
                 identity,
                 serializer,
                 requestCleanupInterval,
                 connection,
-                pubSubConnection);
+                pubSubConnection,
+                publishPipeline,
+                packetDispatcher);
+    }
+
+    static <P extends Packet> RedisPacketBroker<P> create(
+            Wisp wisp,
+            String identity,
+            Serializer serializer,
+            Duration requestCleanupInterval,
+            StatefulRedisConnection<String, byte[]> connection,
+            StatefulRedisPubSubConnection<String, byte[]> pubSubConnection,
+            RedisPublishPipeline publishPipeline) {
+        return create(
+                wisp,
+                identity,
+                serializer,
+                requestCleanupInterval,
+                connection,
+                pubSubConnection,
+                publishPipeline,
+                RedisPacketDispatcher.create());
+    }
+
+    static <P extends Packet> RedisPacketBroker<P> create(
+            Wisp wisp,
+            String identity,
+            Serializer serializer,
+            Duration requestCleanupInterval,
+            StatefulRedisConnection<String, byte[]> connection,
+            StatefulRedisPubSubConnection<String, byte[]> pubSubConnection) {
+        return create(
+                wisp,
+                identity,
+                serializer,
+                requestCleanupInterval,
+                connection,
+                pubSubConnection,
+                RedisPublishPipeline.create(connection));
     }
 
     static <P extends Packet> RedisPacketBroker<P> create(
             String identity,
             Serializer serializer,
             Duration requestCleanupInterval,
-            StatefulRedisConnection<String, String> connection,
-            StatefulRedisPubSubConnection<String, String> pubSubConnection) {
+            StatefulRedisConnection<String, byte[]> connection,
+            StatefulRedisPubSubConnection<String, byte[]> pubSubConnection) {
         return create(Wisp.create(), identity, serializer, requestCleanupInterval, connection, pubSubConnection);
     }
 }
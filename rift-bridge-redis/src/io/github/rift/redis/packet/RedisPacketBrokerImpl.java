@@ -1,7 +1,8 @@
 package io.github.rift.redis.packet;
 
-import static java.util.UUID.randomUUID;
+import static java.util.logging.Level.WARNING;
 
+import io.github.rift.serializer.BinarySerializer;
 import io.github.rift.serializer.Packet;
 import io.github.rift.serializer.Serializer;
 import io.github.wisp.Wisp;
@@ -10,63 +11,96 @@ import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import java.time.Duration;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.logging.Logger;
 
 final class RedisPacketBrokerImpl<P extends Packet> implements RedisPacketBroker<P> {
 
+    private static final Logger logger = Logger.getLogger(RedisPacketBrokerImpl.class.getSimpleName());
+
+    private static final String INBOX_TOPIC_PREFIX = "callbacks-";
+    private static final char REPLY_TO_SEPARATOR = '#';
+
     private final Wisp wisp;
     private final String identity;
-    private final Serializer serializer;
+    private final String inboxTopic;
+    private final String correlationPrefix;
+    private final AtomicLong correlationSequence = new AtomicLong();
+    private final BinarySerializer serializer;
     private final Duration requestCleanupInterval;
-    private final StatefulRedisConnection<String, String> connection;
-    private final StatefulRedisPubSubConnection<String, String> pubSubConnection;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final StatefulRedisPubSubConnection<String, byte[]> pubSubConnection;
+    private final RedisPublishPipeline publishPipeline;
+    private final RedisPacketDispatcher packetDispatcher;
     private final Map<String, CompletableFuture<?>> callbacks = new ConcurrentHashMap<>();
-    private final Set<String> subscribedTopics = ConcurrentHashMap.newKeySet();
+    private final RedisPacketDelegate packetDelegate = new RedisPacketDelegate();
 
     RedisPacketBrokerImpl(
             Wisp wisp,
             String identity,
             Serializer serializer,
             Duration requestCleanupInterval,
-            StatefulRedisConnection<String, String> connection,
-            StatefulRedisPubSubConnection<String, String> pubSubConnection) {
+            StatefulRedisConnection<String, byte[]> connection,
+            StatefulRedisPubSubConnection<String, byte[]> pubSubConnection,
+            RedisPublishPipeline publishPipeline,
+            RedisPacketDispatcher packetDispatcher) {
         this.wisp = wisp.result(
                 Packet.class, (event, response) -> {
-                    if (event instanceof Packet request) {
+                    if (event instanceof Packet request && request.getReplyTo() != null) {
                         response.setReplyTo(request.getReplyTo());
+                        String replyTopic = inboxTopicOf(request.getReplyTo());
                         //noinspection unchecked
-                        publish("callbacks", (P) response);
+                        publishAsync(replyTopic, (P) response).whenComplete((result, throwable) -> {
+                            if (throwable != null) {
+                                logger.log(
+                                        WARNING,
+                                        "Could not publish reply on channel named %s.".formatted(replyTopic),
+                                        throwable);
+                            }
+                        });
                     }
                 });
         this.identity = identity;
-        this.serializer = serializer;
+        this.inboxTopic = INBOX_TOPIC_PREFIX + identity;
+        // Random per-instance prefix, so that late replies addressed to a previous incarnation of the same
+        // identity can never complete a request of this one.
+        this.correlationPrefix = Long.toHexString(ThreadLocalRandom.current().nextLong()) + '-';
+        this.serializer = BinarySerializer.of(serializer);
         this.requestCleanupInterval = requestCleanupInterval;
         this.connection = connection;
         this.pubSubConnection = pubSubConnection;
-        subscribeCallbacks();
+        this.publishPipeline = publishPipeline;
+        this.packetDispatcher = packetDispatcher;
+        pubSubConnection.addListener(packetDelegate);
+        subscribeInbox();
     }
 
-    private void subscribeCallbacks() {
-        pubSubConnection.addListener(new RedisPacketDelegate(
-                "callbacks", message -> {
-            P response = serializer.deserialize(message);
-            if (response.getReplyTo() == null) {
-                return;
-            }
+    private void subscribeInbox() {
+        subscribeInternal(
+                inboxTopic, message -> {
+                    P response = serializer.deserializeFromBytes(message);
+                    if (response.getReplyTo() == null) {
+                        return;
+                    }
 
-            CompletableFuture<?> future = callbacks.get(response.getReplyTo());
-            if (future == null) {
-                return;
-            }
+                    CompletableFuture<?> future = callbacks.remove(response.getReplyTo());
+                    if (future == null) {
+                        return;
+                    }
+
+                    //noinspection unchecked
+                    ((CompletableFuture<P>) future).complete(response);
+                });
+    }
 
-            //noinspection unchecked
-            ((CompletableFuture<P>) future).complete(response);
-        }));
-        pubSubConnection.sync().subscribe("callbacks");
+    private static String inboxTopicOf(String replyTo) {
+        int separatorIndex = replyTo.lastIndexOf(REPLY_TO_SEPARATOR);
+        return separatorIndex == -1 ? replyTo : replyTo.substring(0, separatorIndex);
     }
 
     @Override
@@ -77,7 +111,7 @@ final class RedisPacketBrokerImpl<P extends Packet> implements RedisPacketBroker
     @Override
     public void publish(String topic, P packet) {
         try {
-            connection.sync().publish(topic, serializer.serialize(packet));
+            connection.sync().publish(topic, serializer.serializeToBytes(packet));
         } catch (Exception exception) {
             throw new IllegalStateException(
                     "Could not publish packet on channel named %s due to unexpected exception.".formatted(topic),
@@ -85,24 +119,39 @@ final class RedisPacketBrokerImpl<P extends Packet> implements RedisPacketBroker
         }
     }
 
+    @Override
+    public CompletableFuture<Void> publishAsync(String topic, P packet) {
+        byte[] payload;
+        try {
+            payload = serializer.serializeToBytes(packet);
+        } catch (Exception exception) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Could not publish packet on channel named %s due to unexpected exception.".formatted(topic),
+                    exception));
+        }
+        return publishPipeline.publish(topic, payload).thenApply(receivers -> null);
+    }
+
     @Override
     public <R extends P> CompletableFuture<R> request(String topic, P request) {
-        String replyTo = randomUUID().toString();
+        String replyTo = inboxTopic
+                + REPLY_TO_SEPARATOR
+                + correlationPrefix
+                + Long.toHexString(correlationSequence.incrementAndGet());
         request.setReplyTo(replyTo);
 
-        CompletableFuture<String> responseFuture = new CompletableFuture<>();
-        responseFuture.orTimeout(requestCleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
-
-        subscribeInternal(replyTo, responseFuture::complete);
+        CompletableFuture<R> responseFuture = new CompletableFuture<>();
+        callbacks.put(replyTo, responseFuture);
+        responseFuture
+                .orTimeout(requestCleanupInterval.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, throwable) -> callbacks.remove(replyTo));
 
-        responseFuture.whenCompleteAsync((response, throwable) -> pubSubConnection.sync().unsubscribe(replyTo));
-
-        publish(topic, request);
-
-        return responseFuture.thenApply(serializer::deserialize).thenApply(response -> {
-            //noinspection unchecked
-            return (R) response;
+        publishAsync(topic, request).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                responseFuture.completeExceptionally(throwable);
+            }
         });
+        return responseFuture;
     }
 
     @Override
@@ -112,24 +161,23 @@ final class RedisPacketBrokerImpl<P extends Packet> implements RedisPacketBroker
         String topic = subscriber.topic();
         subscribeInternal(
                 topic, message -> {
-                    P packet = serializer.deserialize(message);
+                    P packet = serializer.deserializeFromBytes(message);
                     wisp.publish(packet, topic);
                 });
     }
 
-    private void subscribeInternal(String topic, Consumer<String> callback) {
-        if (subscribedTopics.contains(topic)) {
-            return;
+    private void subscribeInternal(String topic, Consumer<byte[]> callback) {
+        if (packetDelegate.register(topic, packetDispatcher.bind(topic, callback))) {
+            pubSubConnection.sync().subscribe(topic);
         }
-
-        subscribedTopics.add(topic);
-
-        pubSubConnection.addListener(new RedisPacketDelegate(topic, callback));
-        pubSubConnection.sync().subscribe(topic);
     }
 
     @Override
     public void close() {
-        subscribedTopics.clear();
+        publishPipeline.close();
+        pubSubConnection.removeListener(packetDelegate);
+        packetDelegate.clear();
+        callbacks.values().forEach(future -> future.cancel(false));
+        callbacks.clear();
     }
 }
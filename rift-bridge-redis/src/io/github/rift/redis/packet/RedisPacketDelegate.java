@@ -1,27 +1,36 @@
 package io.github.rift.redis.packet;
 
 import io.lettuce.core.pubsub.RedisPubSubListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
-final class RedisPacketDelegate implements RedisPubSubListener<String, String> {
+/**
+ * Single listener of the pub/sub connection, which routes each message to the consumer registered for
+ * its topic with one hash lookup, regardless of how many topics are subscribed.
+ */
+final class RedisPacketDelegate implements RedisPubSubListener<String, byte[]> {
 
-    private final String subscribedTopic;
-    private final Consumer<String> messageConsumer;
+    private final Map<String, Consumer<byte[]>> messageConsumers = new ConcurrentHashMap<>();
 
-    RedisPacketDelegate(String subscribedTopic, Consumer<String> messageConsumer) {
-        this.subscribedTopic = subscribedTopic;
-        this.messageConsumer = messageConsumer;
+    boolean register(String topic, Consumer<byte[]> messageConsumer) {
+        return messageConsumers.putIfAbsent(topic, messageConsumer) == null;
+    }
+
+    void clear() {
+        messageConsumers.clear();
     }
 
     @Override
-    public void message(String topic, String message) {
-        if (subscribedTopic.equals(topic)) {
+    public void message(String topic, byte[] message) {
+        Consumer<byte[]> messageConsumer = messageConsumers.get(topic);
+        if (messageConsumer != null) {
             messageConsumer.accept(message);
         }
     }
 
     @Override
-    public void message(String pattern, String topic, String message) {
+    public void message(String pattern, String topic, byte[] message) {
         message("%s:%s".formatted(pattern, topic), message);
     }
 
@@ -0,0 +1,179 @@
+package io.github.rift.redis.packet;
+
+import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stage between the pub/sub listener and message consumers.
+ *
+ * <p>In queued mode every topic gets its own bounded queue, drained in order by the given executor
+ * (a worker pool, or virtual threads where available), so a slow consumer of one topic never stalls
+ * other topics or the Lettuce I/O thread. When a queue is full, the configured {@link OverflowPolicy}
+ * decides which message is discarded; the I/O thread itself is never blocked or failed.
+ */
+public final class RedisPacketDispatcher {
+
+    private static final Logger logger = Logger.getLogger(RedisPacketDispatcher.class.getSimpleName());
+
+    private static final int MAX_DRAIN_BATCH = 64;
+
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Map<String, TopicQueue> topicQueues = new ConcurrentHashMap<>();
+
+    private RedisPacketDispatcher(Executor executor, int capacity, OverflowPolicy overflowPolicy) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Creates a dispatcher which invokes consumers directly on the I/O thread.
+     */
+    public static RedisPacketDispatcher create() {
+        return new RedisPacketDispatcher(null, 0, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Creates a dispatcher which queues at most {@code capacity} messages per topic and drains them on
+     * the given executor.
+     */
+    public static RedisPacketDispatcher create(
+            @NotNull Executor executor, int capacity, @NotNull OverflowPolicy overflowPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, got %d.".formatted(capacity));
+        }
+        return new RedisPacketDispatcher(executor, capacity, overflowPolicy);
+    }
+
+    Consumer<byte[]> bind(String topic, Consumer<byte[]> messageConsumer) {
+        if (executor == null) {
+            return messageConsumer;
+        }
+        return topicQueues.computeIfAbsent(topic, ignored -> new TopicQueue(topic, messageConsumer));
+    }
+
+    public @NotNull Map<String, TopicStatistics> statistics() {
+        Map<String, TopicStatistics> statistics = new ConcurrentHashMap<>();
+        topicQueues.forEach((topic, topicQueue) -> statistics.put(topic, topicQueue.statistics()));
+        return statistics;
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * Discards the oldest queued message of the topic to make room for the incoming one.
+         */
+        DROP_OLDEST,
+        /**
+         * Rejects the incoming message, counting it and logging once per overflow of the queue.
+         */
+        FAIL
+    }
+
+    public record TopicStatistics(int queued, long processed, long dropped, long rejected, long failed) {}
+
+    private final class TopicQueue implements Consumer<byte[]>, Runnable {
+
+        private final String topic;
+        private final Consumer<byte[]> messageConsumer;
+        private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(capacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final LongAdder processed = new LongAdder();
+        private final AtomicBoolean overflowing = new AtomicBoolean();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        TopicQueue(String topic, Consumer<byte[]> messageConsumer) {
+            this.topic = topic;
+            this.messageConsumer = messageConsumer;
+        }
+
+        @Override
+        public void accept(byte[] message) {
+            if (queue.offer(message)) {
+                overflowing.lazySet(false);
+            } else {
+                enqueueOnOverflow(message);
+            }
+            schedule();
+        }
+
+        private void enqueueOnOverflow(byte[] message) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST -> {
+                    while (!queue.offer(message)) {
+                        if (queue.poll() != null) {
+                            dropped.increment();
+                        }
+                    }
+                }
+                case FAIL -> {
+                    rejected.increment();
+                    if (overflowing.compareAndSet(false, true)) {
+                        logger.log(
+                                WARNING,
+                                "Rejecting messages on channel named %s, because its queue is full.".formatted(topic));
+                    }
+                }
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException exception) {
+                scheduled.set(false);
+                logger.log(WARNING, "Could not schedule dispatch of channel named %s.".formatted(topic), exception);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                byte[] message;
+                int drained = 0;
+                while (drained++ < MAX_DRAIN_BATCH && (message = queue.poll()) != null) {
+                    try {
+                        messageConsumer.accept(message);
+                        processed.increment();
+                    } catch (Exception exception) {
+                        failed.increment();
+                        logger.log(
+                                SEVERE,
+                                "An error occurred while dispatching message on channel named %s.".formatted(topic),
+                                exception);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+
+            // Yield the worker between batches, so that busy topics cannot starve quiet ones.
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        TopicStatistics statistics() {
+            return new TopicStatistics(queue.size(), processed.sum(), dropped.sum(), rejected.sum(), failed.sum());
+        }
+    }
+}
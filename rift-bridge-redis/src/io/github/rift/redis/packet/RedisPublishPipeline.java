@@ -0,0 +1,148 @@
+package io.github.rift.redis.packet;
+
+import io.github.rift.redis.RedisRiftCodec;
+import io.github.rift.scheduler.ScheduledTask;
+import io.github.rift.scheduler.Scheduler;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.RedisCommand;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Non-blocking publisher of raw payloads.
+ *
+ * <p>In batching mode, publishes coming from any number of threads are queued and written to the
+ * connection as a single pipelined batch, either once {@code maxBatchSize} commands are pending or
+ * after at most {@code maxLatency}, whichever comes first. Batches are dispatched as a whole, so the
+ * connection can be shared with other (synchronous) users, and one at a time, so publishes reach the
+ * connection in the order they were queued.
+ */
+public final class RedisPublishPipeline implements Closeable {
+
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final int maxBatchSize;
+    private final Queue<RedisCommand<String, byte[], ?>> pendingCommands = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledTask flushTask;
+    private volatile boolean closed;
+
+    private RedisPublishPipeline(
+            StatefulRedisConnection<String, byte[]> connection,
+            Scheduler scheduler,
+            int maxBatchSize,
+            Duration maxLatency) {
+        this.connection = connection;
+        this.maxBatchSize = maxBatchSize;
+        this.flushTask = scheduler == null ? null : scheduler.schedule(this::flush, maxLatency);
+    }
+
+    /**
+     * Creates a pipeline which dispatches every publish as soon as it is issued.
+     */
+    public static RedisPublishPipeline create(@NotNull StatefulRedisConnection<String, byte[]> connection) {
+        return new RedisPublishPipeline(connection, null, 1, Duration.ZERO);
+    }
+
+    /**
+     * Creates a pipeline which coalesces publishes into batches of at most {@code maxBatchSize}
+     * commands, flushed by the given scheduler at least every {@code maxLatency}.
+     */
+    public static RedisPublishPipeline create(
+            @NotNull StatefulRedisConnection<String, byte[]> connection,
+            @NotNull Scheduler scheduler,
+            int maxBatchSize,
+            @NotNull Duration maxLatency) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be positive, got %d.".formatted(maxBatchSize));
+        }
+
+        if (maxLatency.toMillis() < 1) {
+            throw new IllegalArgumentException(
+                    "Max latency must be at least one millisecond, got %s.".formatted(maxLatency));
+        }
+        return new RedisPublishPipeline(connection, scheduler, maxBatchSize, maxLatency);
+    }
+
+    /**
+     * Queues a publish, or fails it once the pipeline is closed.
+     */
+    public CompletableFuture<Long> publish(String channel, byte[] payload) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Could not publish on channel named %s, because the pipeline is closed.".formatted(channel)));
+        }
+
+        if (flushTask == null) {
+            return connection.async().publish(channel, payload).toCompletableFuture();
+        }
+
+        AsyncCommand<String, byte[], Long> command = new AsyncCommand<>(new Command<>(
+                CommandType.PUBLISH,
+                new IntegerOutput<>(RedisRiftCodec.INSTANCE),
+                new CommandArgs<>(RedisRiftCodec.INSTANCE).addKey(channel).addValue(payload)));
+        pendingCommands.add(command);
+        // A publish queued while closing may have missed the final flush, which nothing would follow.
+        if (pendingCount.incrementAndGet() >= maxBatchSize || closed) {
+            flush();
+        }
+        return command;
+    }
+
+    /**
+     * Writes all pending publishes to the connection as one pipelined batch.
+     */
+    public void flush() {
+        int count = pendingCount.get();
+        if (count == 0) {
+            return;
+        }
+
+        // Draining and dispatching under one lock keeps a later batch from overtaking an earlier one.
+        flushLock.lock();
+        try {
+            List<RedisCommand<String, byte[], ?>> batch = new ArrayList<>(count);
+            RedisCommand<String, byte[], ?> command;
+            while ((command = pendingCommands.poll()) != null) {
+                batch.add(command);
+            }
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            pendingCount.addAndGet(-batch.size());
+            try {
+                connection.dispatch(batch);
+            } catch (Exception exception) {
+                for (RedisCommand<String, byte[], ?> failedCommand : batch) {
+                    failedCommand.completeExceptionally(exception);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        flush();
+    }
+}
@@ -4,6 +4,8 @@ plugins {
 
 dependencies {
     api(project(":rift-serializer-jackson"))
+    api(project(":rift-serializer-codec"))
     api(project(":rift-bridge-redis"))
     api(libs.caffeine)
-}
\ No newline at end of file
+    annotationProcessor(project(":rift-serializer-codec-processor"))
+}
@@ -1,12 +1,14 @@
 package io.github.rift.demo;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import io.github.rift.serializer.codec.RiftCodec;
 import io.github.rift.serializer.jackson.JacksonSerializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
+@RiftCodec(id = 4)
 public class ExamplePojo implements JacksonSerializable {
 
     private UUID uniqueId;
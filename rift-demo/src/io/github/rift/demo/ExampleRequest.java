@@ -1,8 +1,10 @@
 package io.github.rift.demo;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import io.github.rift.serializer.codec.RiftCodec;
 import io.github.rift.serializer.jackson.AbstractJacksonPacket;
 
+@RiftCodec(id = 2)
 public class ExampleRequest extends AbstractJacksonPacket {
 
     private String playerId;
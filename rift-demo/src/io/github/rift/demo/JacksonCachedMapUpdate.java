@@ -3,11 +3,16 @@ package io.github.rift.demo;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import io.github.rift.serializer.jackson.AbstractJacksonPacket;
 import io.github.rift.map.CachedMapUpdate;
+import java.util.Map;
 
 public class JacksonCachedMapUpdate extends AbstractJacksonPacket implements CachedMapUpdate {
 
     private String key;
     private String value;
+    private long expiresAt;
+    private String origin;
+    private long version;
+    private Map<String, String> entries;
 
     @JsonCreator
     private JacksonCachedMapUpdate() {}
@@ -26,4 +31,44 @@ public class JacksonCachedMapUpdate extends AbstractJacksonPacket implements Cac
     public String getValue() {
         return value;
     }
+
+    @Override
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Map<String, String> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public void setEntries(Map<String, String> entries) {
+        this.entries = entries;
+    }
 }
@@ -2,6 +2,7 @@ package io.github.rift.demo;
 
 import io.github.rift.RiftClient;
 import io.github.rift.serializer.Serializer;
+import io.github.rift.serializer.codec.CodecSerializer;
 import io.github.rift.serializer.jackson.JacksonPacket;
 import io.github.rift.serializer.jackson.JacksonSerializable;
 import io.github.rift.serializer.jackson.JacksonSerializerFactory;
@@ -17,7 +18,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class Main {
 
     public static void main(String[] args) {
-        Serializer serializer = JacksonSerializerFactory.create();
+        Serializer serializer = CodecSerializer.create(JacksonSerializerFactory.create());
         Scheduler scheduler = StandaloneScheduler.create();
         RiftClient<JacksonSerializable, JacksonPacket> riftClient =
                 RedisRiftClient.create(serializer, scheduler, RedisClient.create("redis://localhost:6379"));
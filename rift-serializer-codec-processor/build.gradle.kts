@@ -0,0 +1,14 @@
+plugins {
+    id("io.github.rift.java")
+    id("io.github.rift.publish")
+}
+
+sourceSets {
+    main {
+        resources.setSrcDirs(listOf("resources"))
+    }
+}
+
+riftPublish {
+    artifactId = "rift-serializer-codec-processor"
+}
@@ -0,0 +1,558 @@
+package io.github.rift.serializer.codec.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a {@code PacketCodec} for every type annotated with {@code RiftCodec}, and registers all
+ * of them as services, so that {@code CodecRegistry} discovers them at runtime.
+ *
+ * <p>The generated codec lives in the package of the annotated type, is named after it with a {@code
+ * Codec} suffix, and reads and writes every non-static, non-transient field, including inherited
+ * ones, either directly or through its getter and setter. Private fields without accessors, and a
+ * private constructor, are reached through method and var handles looked up once per codec.
+ */
+public final class RiftCodecProcessor extends AbstractProcessor {
+
+    private static final String ANNOTATION_NAME = "io.github.rift.serializer.codec.RiftCodec";
+    private static final String CODEC_PACKAGE = "io.github.rift.serializer.codec";
+    private static final String SERVICE_FILE = "META-INF/services/" + CODEC_PACKAGE + ".PacketCodec";
+
+    private static final Map<String, String> BOXED_TYPES = Map.of(
+            "java.lang.Boolean", "Boolean",
+            "java.lang.Byte", "Byte",
+            "java.lang.Short", "Short",
+            "java.lang.Character", "Char",
+            "java.lang.Integer", "Int",
+            "java.lang.Long", "Long",
+            "java.lang.Float", "Float",
+            "java.lang.Double", "Double");
+    private static final Set<String> LIST_TYPES = Set.of("java.util.List", "java.util.Collection", "java.util.ArrayList");
+    private static final Set<String> SET_TYPES = Set.of("java.util.Set", "java.util.HashSet", "java.util.LinkedHashSet");
+    private static final Set<String> MAP_TYPES = Set.of("java.util.Map", "java.util.HashMap", "java.util.LinkedHashMap");
+
+    private final Set<String> generatedCodecs = new LinkedHashSet<>();
+    private final Map<Integer, String> typesById = new HashMap<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(ANNOTATION_NAME);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                try {
+                    generateCodec((TypeElement) element, idOf(element));
+                } catch (CodecException exception) {
+                    processingEnv.getMessager()
+                            .printMessage(Diagnostic.Kind.ERROR, exception.getMessage(), exception.element);
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !generatedCodecs.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void generateCodec(TypeElement type, int id) {
+        validateType(type);
+
+        String typeName = type.getQualifiedName().toString();
+        String existingType = typesById.putIfAbsent(id, typeName);
+        if (existingType != null && !existingType.equals(typeName)) {
+            throw new CodecException(type, "Codec id %d is already used by %s.".formatted(id, existingType));
+        }
+
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String codecName = codecNameOf(type);
+        StringBuilder handles = new StringBuilder();
+        StringBuilder lookups = new StringBuilder();
+        StringBuilder encode = new StringBuilder();
+        StringBuilder decode = new StringBuilder();
+        String instantiation = "new " + typeName + "()";
+        if (!hasAccessibleConstructor(type)) {
+            handles.append("    private static final MethodHandle CONSTRUCTOR;\n");
+            lookups.append("            CONSTRUCTOR = MethodHandles.privateLookupIn(%1$s.class, lookup)\n"
+                    .formatted(typeName));
+            lookups.append("                    .findConstructor(%1$s.class, MethodType.methodType(void.class));\n"
+                    .formatted(typeName));
+            instantiation = "(%s) CONSTRUCTOR.invokeExact()".formatted(typeName);
+        }
+
+        List<VariableElement> fields = fieldsOf(type);
+        for (int index = 0; index < fields.size(); index++) {
+            VariableElement field = fields.get(index);
+            TypeMirror fieldType = field.asType();
+            if (isAccessible(field, type)) {
+                String name = field.getSimpleName().toString();
+                encode.append("        ").append(writeStatement(fieldType, "value." + name, field)).append('\n');
+                decode.append("        value.").append(name).append(" = ")
+                        .append(readExpression(fieldType, field)).append(";\n");
+                continue;
+            }
+
+            ExecutableElement getter = getterOf(type, field);
+            ExecutableElement setter = setterOf(type, field);
+            if (getter == null || setter == null) {
+                String handle = "FIELD_" + index;
+                String declaringType = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+                handles.append("    private static final VarHandle ").append(handle).append(";\n");
+                lookups.append("            %1$s = MethodHandles.privateLookupIn(%2$s.class, lookup)\n"
+                        .formatted(handle, declaringType));
+                lookups.append("                    .findVarHandle(%1$s.class, \"%2$s\", %3$s.class);\n".formatted(
+                        declaringType,
+                        field.getSimpleName(),
+                        processingEnv.getTypeUtils().erasure(fieldType)));
+                encode.append("        ")
+                        .append(writeStatement(fieldType, "(%s) %s.get(value)".formatted(fieldType, handle), field))
+                        .append('\n');
+                decode.append("        ").append(handle).append(".set(value, ")
+                        .append(readExpression(fieldType, field)).append(");\n");
+                continue;
+            }
+            encode.append("        ")
+                    .append(writeStatement(fieldType, "value." + getter.getSimpleName() + "()", field))
+                    .append('\n');
+            decode.append("        value.").append(setter.getSimpleName()).append('(')
+                    .append(readExpression(fieldType, field)).append(");\n");
+        }
+
+        String handleInitializer = "";
+        if (!handles.isEmpty()) {
+            handleInitializer = """
+                    %s
+                        static {
+                            try {
+                                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                    %s        } catch (ReflectiveOperationException exception) {
+                                throw new ExceptionInInitializerError(exception);
+                            }
+                        }
+
+                    """.formatted(handles, lookups);
+        }
+
+        String source = """
+                package %1$s;
+
+                import %5$s.CodecReader;
+                import %5$s.CodecWriter;
+                import %5$s.PacketCodec;
+                import java.lang.invoke.MethodHandle;
+                import java.lang.invoke.MethodHandles;
+                import java.lang.invoke.MethodType;
+                import java.lang.invoke.VarHandle;
+                import javax.annotation.processing.Generated;
+
+                @Generated("%6$s")
+                public final class %2$s implements PacketCodec<%3$s> {
+
+                %9$s    public %2$s() {}
+
+                    @Override
+                    public int id() {
+                        return %4$d;
+                    }
+
+                    @Override
+                    public Class<%3$s> type() {
+                        return %3$s.class;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void encode(%3$s value, CodecWriter writer) {
+                %7$s    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public %3$s decode(CodecReader reader) {
+                        %3$s value = instantiate();
+                %8$s        return value;
+                    }
+
+                    private static %3$s instantiate() {
+                        try {
+                            return %10$s;
+                        } catch (Throwable exception) {
+                            throw new IllegalStateException("Could not instantiate %3$s.", exception);
+                        }
+                    }
+                }
+                """.formatted(
+                packageName,
+                codecName,
+                typeName,
+                id,
+                CODEC_PACKAGE,
+                RiftCodecProcessor.class.getName(),
+                encode,
+                decode,
+                handleInitializer,
+                instantiation);
+
+        String codecQualifiedName = packageName.isEmpty() ? codecName : packageName + '.' + codecName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(codecQualifiedName, type).openWriter()) {
+            writer.write(source);
+        } catch (IOException exception) {
+            throw new CodecException(type, "Could not write codec %s: %s".formatted(codecName, exception.getMessage()));
+        }
+        generatedCodecs.add(codecQualifiedName);
+    }
+
+    private void validateType(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new CodecException(type, "Only concrete classes can have a generated codec.");
+        }
+
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new CodecException(type, "Generic classes can not have a generated codec.");
+        }
+
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            TypeElement currentType = (TypeElement) current;
+            if (currentType.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new CodecException(type, "Private classes can not have a generated codec.");
+            }
+
+            if (currentType.getNestingKind() == NestingKind.MEMBER
+                    && !currentType.getModifiers().contains(Modifier.STATIC)) {
+                throw new CodecException(type, "Inner classes can not have a generated codec, make them static.");
+            }
+        }
+
+        boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty());
+        if (!hasConstructor) {
+            throw new CodecException(type, "Classes with a generated codec need a no-argument constructor.");
+        }
+    }
+
+    private boolean hasAccessibleConstructor(TypeElement type) {
+        return ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !constructor.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    private List<VariableElement> fieldsOf(TypeElement type) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            hierarchy.add(0, current);
+        }
+
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement current : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+
+                if (modifiers.contains(Modifier.FINAL)) {
+                    throw new CodecException(field, "Field %s of %s must not be final."
+                            .formatted(field.getSimpleName(), current.getQualifiedName()));
+                }
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        TypeElement superType = (TypeElement) ((DeclaredType) superclass).asElement();
+        return superType.getQualifiedName().contentEquals("java.lang.Object") ? null : superType;
+    }
+
+    private ExecutableElement getterOf(TypeElement type, VariableElement field) {
+        String suffix = capitalize(field.getSimpleName().toString());
+        boolean isBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        for (ExecutableElement method : methodsOf(type)) {
+            String name = method.getSimpleName().toString();
+            if ((name.equals("get" + suffix) || isBoolean && name.equals("is" + suffix))
+                    && method.getParameters().isEmpty()
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())
+                    && isAccessible(method, type)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private ExecutableElement setterOf(TypeElement type, VariableElement field) {
+        String name = "set" + capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : methodsOf(type)) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), field.asType())
+                    && isAccessible(method, type)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private List<ExecutableElement> methodsOf(TypeElement type) {
+        return ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)).stream()
+                .filter(method -> !method.getModifiers().contains(Modifier.STATIC))
+                .toList();
+    }
+
+    /**
+     * Whether the generated codec, which lives in the package of the annotated type, can access the
+     * given member directly.
+     */
+    private boolean isAccessible(Element member, TypeElement type) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && packageOf(member).equals(packageOf(type));
+    }
+
+    private String writeStatement(TypeMirror type, String value, Element field) {
+        String kind = kindOf(type, field);
+        return switch (kind) {
+            case "List", "Set" -> "writer.writeCollection(%s, %s);"
+                    .formatted(value, encoderOf(typeArgumentOf(type, 0, field), field, 0));
+            case "Map" -> "writer.writeMap(%s, %s, %s);".formatted(
+                    value,
+                    encoderOf(typeArgumentOf(type, 0, field), field, 0),
+                    encoderOf(typeArgumentOf(type, 1, field), field, 0));
+            default -> "writer.write%s(%s);".formatted(kind, value);
+        };
+    }
+
+    private String readExpression(TypeMirror type, Element field) {
+        return readExpression(type, field, "reader", 0);
+    }
+
+    private String readExpression(TypeMirror type, Element field, String reader, int depth) {
+        String kind = kindOf(type, field);
+        return switch (kind) {
+            case "List", "Set" -> "%s.read%s(%s)"
+                    .formatted(reader, kind, decoderOf(typeArgumentOf(type, 0, field), field, depth));
+            case "Map" -> "%s.readMap(%s, %s)".formatted(
+                    reader,
+                    decoderOf(typeArgumentOf(type, 0, field), field, depth),
+                    decoderOf(typeArgumentOf(type, 1, field), field, depth));
+            case "Enum" -> "%s.readEnum(%s.class)".formatted(reader, erasedNameOf(type));
+            case "Object" -> "%s.<%s>readObject()".formatted(reader, erasedNameOf(type));
+            default -> "%s.read%s()".formatted(reader, kind);
+        };
+    }
+
+    private String encoderOf(TypeMirror type, Element field, int depth) {
+        String kind = kindOf(type, field);
+        if (type.getKind().isPrimitive()) {
+            throw new CodecException(field, "Primitive type %s can not be an element.".formatted(type));
+        }
+
+        return switch (kind) {
+            case "List", "Set" -> "(w%1$d, v%1$d) -> w%1$d.writeCollection(v%1$d, %2$s)"
+                    .formatted(depth, encoderOf(typeArgumentOf(type, 0, field), field, depth + 1));
+            case "Map" -> "(w%1$d, v%1$d) -> w%1$d.writeMap(v%1$d, %2$s, %3$s)".formatted(
+                    depth,
+                    encoderOf(typeArgumentOf(type, 0, field), field, depth + 1),
+                    encoderOf(typeArgumentOf(type, 1, field), field, depth + 1));
+            default -> "CodecWriter::write" + kind;
+        };
+    }
+
+    private String decoderOf(TypeMirror type, Element field, int depth) {
+        String kind = kindOf(type, field);
+        return switch (kind) {
+            case "List", "Set", "Map", "Enum" -> "r%1$d -> %2$s"
+                    .formatted(depth, readExpression(type, field, "r" + depth, depth + 1));
+            case "Object" -> "CodecReader::<%s>readObject".formatted(erasedNameOf(type));
+            default -> "CodecReader::read" + kind;
+        };
+    }
+
+    /**
+     * Resolves the suffix of the {@code CodecWriter} and {@code CodecReader} methods handling the
+     * given type.
+     */
+    private String kindOf(TypeMirror type, Element field) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Boolean";
+            case BYTE:
+                return "Byte";
+            case SHORT:
+                return "Short";
+            case CHAR:
+                return "Char";
+            case INT:
+                return "Int";
+            case LONG:
+                return "Long";
+            case FLOAT:
+                return "Float";
+            case DOUBLE:
+                return "Double";
+            case ARRAY:
+                if (processingEnv.getTypeUtils().isSameType(
+                        type, processingEnv.getTypeUtils().getArrayType(
+                                processingEnv.getTypeUtils().getPrimitiveType(TypeKind.BYTE)))) {
+                    return "Bytes";
+                }
+                break;
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+                String name = element.getQualifiedName().toString();
+                if (BOXED_TYPES.containsKey(name)) {
+                    return "Boxed" + BOXED_TYPES.get(name);
+                }
+
+                if (name.equals("java.lang.String")) {
+                    return "String";
+                }
+
+                if (name.equals("java.util.UUID")) {
+                    return "Uuid";
+                }
+
+                if (element.getKind() == ElementKind.ENUM) {
+                    return "Enum";
+                }
+
+                boolean parameterized = !((DeclaredType) type).getTypeArguments().isEmpty();
+                if (LIST_TYPES.contains(name) && parameterized) {
+                    return "List";
+                }
+
+                if (SET_TYPES.contains(name) && parameterized) {
+                    return "Set";
+                }
+
+                if (MAP_TYPES.contains(name) && parameterized) {
+                    return "Map";
+                }
+
+                if (name.startsWith("java.") || !element.getTypeParameters().isEmpty()) {
+                    break;
+                }
+                return "Object";
+            default:
+                break;
+        }
+        throw new CodecException(field, "Type %s of field %s is not supported by generated codecs."
+                .formatted(type, field.getSimpleName()));
+    }
+
+    private TypeMirror typeArgumentOf(TypeMirror type, int index, Element field) {
+        TypeMirror argument = ((DeclaredType) type).getTypeArguments().get(index);
+        if (argument.getKind() == TypeKind.WILDCARD || argument.getKind() == TypeKind.TYPEVAR) {
+            throw new CodecException(field, "Type %s of field %s has to be fully specified."
+                    .formatted(type, field.getSimpleName()));
+        }
+        return argument;
+    }
+
+    private String erasedNameOf(TypeMirror type) {
+        return ((TypeElement) processingEnv.getTypeUtils().asElement(type)).getQualifiedName().toString();
+    }
+
+    private int idOf(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (!annotationType.getQualifiedName().contentEquals(ANNOTATION_NAME)) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("id")) {
+                    int id = (Integer) entry.getValue().getValue();
+                    if (id < 0 || id > 0xFFFF) {
+                        throw new CodecException(element, "Codec id must be between 0 and 65535, got %d.".formatted(id));
+                    }
+                    return id;
+                }
+            }
+        }
+        throw new CodecException(element, "Could not resolve codec id.");
+    }
+
+    private String codecNameOf(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element current = type.getEnclosingElement(); current instanceof TypeElement;
+                current = current.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, current.getSimpleName());
+        }
+        return name.append("Codec").toString();
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private void writeServiceFile() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String codec : generatedCodecs) {
+                    writer.write(codec);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR, "Could not write %s: %s".formatted(SERVICE_FILE, exception.getMessage()));
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static final class CodecException extends RuntimeException {
+
+        private final Element element;
+
+        CodecException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+plugins {
+    id("io.github.rift.java")
+    id("io.github.rift.publish")
+}
+
+dependencies {
+    api(project(":rift-serializer-common"))
+}
+
+riftPublish {
+    artifactId = "rift-serializer-codec"
+}
@@ -0,0 +1,267 @@
+package io.github.rift.serializer.codec;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.github.rift.serializer.SerializerException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cursor over a payload produced by {@link CodecWriter}, which generated codecs read their fields
+ * from in the order they were written.
+ */
+public final class CodecReader {
+
+    private final CodecRegistry registry;
+    private final byte[] buffer;
+    private int position;
+
+    CodecReader(CodecRegistry registry, byte[] buffer, int position) {
+        this.registry = registry;
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public byte readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    public short readShort() {
+        return (short) readInt();
+    }
+
+    public char readChar() {
+        return (char) readVarInt();
+    }
+
+    public int readInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public float readFloat() {
+        return Float.intBitsToFloat(readFixedInt());
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readFixedLong());
+    }
+
+    public @Nullable Boolean readBoxedBoolean() {
+        return readBoolean() ? readBoolean() : null;
+    }
+
+    public @Nullable Byte readBoxedByte() {
+        return readBoolean() ? readByte() : null;
+    }
+
+    public @Nullable Short readBoxedShort() {
+        return readBoolean() ? readShort() : null;
+    }
+
+    public @Nullable Character readBoxedChar() {
+        return readBoolean() ? readChar() : null;
+    }
+
+    public @Nullable Integer readBoxedInt() {
+        return readBoolean() ? readInt() : null;
+    }
+
+    public @Nullable Long readBoxedLong() {
+        return readBoolean() ? readLong() : null;
+    }
+
+    public @Nullable Float readBoxedFloat() {
+        return readBoolean() ? readFloat() : null;
+    }
+
+    public @Nullable Double readBoxedDouble() {
+        return readBoolean() ? readDouble() : null;
+    }
+
+    public @Nullable String readString() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+
+        int start = position;
+        position += length;
+        for (int index = start; index < position; index++) {
+            if (buffer[index] < 0) {
+                return new String(buffer, start, length, UTF_8);
+            }
+        }
+        // ASCII only, which decodes faster as Latin-1 and yields a compact string right away
+        return new String(buffer, start, length, ISO_8859_1);
+    }
+
+    public @Nullable UUID readUuid() {
+        if (!readBoolean()) {
+            return null;
+        }
+        return new UUID(readFixedLong(), readFixedLong());
+    }
+
+    public byte @Nullable [] readBytes() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] value = new byte[length];
+        System.arraycopy(buffer, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    public <E extends Enum<E>> @Nullable E readEnum(@NotNull Class<E> type) {
+        String name = readString();
+        if (name == null) {
+            return null;
+        }
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException exception) {
+            throw new SerializerException(
+                    "Could not decode %s, because constant %s is unknown.".formatted(type, name), exception);
+        }
+    }
+
+    /**
+     * Reads a value written by {@link CodecWriter#writeObject(Object)}.
+     */
+    public <T> @Nullable T readObject() {
+        int id = readVarInt() - 1;
+        if (id < 0) {
+            return null;
+        }
+
+        PacketCodec<?> codec = registry.codecOf(id);
+        if (codec == null) {
+            throw new SerializerException("Could not decode payload, because codec %d is unknown.".formatted(id));
+        }
+        //noinspection unchecked
+        return (T) codec.decode(this);
+    }
+
+    public <T> @Nullable ArrayList<T> readList(@NotNull Decoder<? extends T> elementDecoder) {
+        int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+
+        ArrayList<T> value = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            value.add(elementDecoder.decode(this));
+        }
+        return value;
+    }
+
+    public <T> @Nullable LinkedHashSet<T> readSet(@NotNull Decoder<? extends T> elementDecoder) {
+        int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+
+        LinkedHashSet<T> value = new LinkedHashSet<>(capacityOf(size));
+        for (int index = 0; index < size; index++) {
+            value.add(elementDecoder.decode(this));
+        }
+        return value;
+    }
+
+    public <K, V> @Nullable LinkedHashMap<K, V> readMap(
+            @NotNull Decoder<? extends K> keyDecoder, @NotNull Decoder<? extends V> valueDecoder) {
+        int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+
+        LinkedHashMap<K, V> value = new LinkedHashMap<>(capacityOf(size));
+        for (int index = 0; index < size; index++) {
+            value.put(keyDecoder.decode(this), valueDecoder.decode(this));
+        }
+        return value;
+    }
+
+    int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte current = readByte();
+            value |= (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+        throw new SerializerException("Could not decode payload, because it contains a malformed varint.");
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte current = readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+        throw new SerializerException("Could not decode payload, because it contains a malformed varint.");
+    }
+
+    private int readFixedInt() {
+        require(4);
+        return (buffer[position++] & 0xFF) << 24
+                | (buffer[position++] & 0xFF) << 16
+                | (buffer[position++] & 0xFF) << 8
+                | (buffer[position++] & 0xFF);
+    }
+
+    private long readFixedLong() {
+        return (long) readFixedInt() << 32 | (readFixedInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads a length shifted by one, returning -1 for null. Every element takes at least one byte, so
+     * the remaining bytes bound any valid length, which keeps corrupted payloads from allocating.
+     */
+    private int readLength() {
+        int length = readVarInt() - 1;
+        if (length > buffer.length - position) {
+            throw new SerializerException("Could not decode payload, because it is truncated.");
+        }
+        return length;
+    }
+
+    private static int capacityOf(int size) {
+        return Math.max(16, (int) (size / 0.75f) + 1);
+    }
+
+    private void require(int length) {
+        if (position + length > buffer.length) {
+            throw new SerializerException("Could not decode payload, because it is truncated.");
+        }
+    }
+
+    @FunctionalInterface
+    public interface Decoder<T> {
+
+        T decode(@NotNull CodecReader reader);
+    }
+}
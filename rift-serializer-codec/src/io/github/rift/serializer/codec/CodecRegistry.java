@@ -0,0 +1,84 @@
+package io.github.rift.serializer.codec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable set of {@link PacketCodec}s, indexed by id in a plain array and by type in a {@link
+ * ClassValue}, so that resolving a codec on the hot path is a table lookup.
+ */
+public final class CodecRegistry {
+
+    static final int MAX_ID = 0xFFFF;
+
+    private final PacketCodec<?>[] codecsById;
+    private final ClassValue<PacketCodec<?>> codecsByType;
+
+    private CodecRegistry(PacketCodec<?>[] codecsById, Map<Class<?>, PacketCodec<?>> codecsByType) {
+        this.codecsById = codecsById;
+        this.codecsByType = new ClassValue<>() {
+            @Override
+            protected PacketCodec<?> computeValue(Class<?> type) {
+                return codecsByType.get(type);
+            }
+        };
+    }
+
+    /**
+     * Creates a registry of every codec registered as a {@link PacketCodec} service of the given class
+     * loader, which includes all codecs generated by the annotation processor.
+     */
+    public static @NotNull CodecRegistry create(@NotNull ClassLoader classLoader) {
+        List<PacketCodec<?>> codecs = new ArrayList<>();
+        for (PacketCodec<?> codec : ServiceLoader.load(PacketCodec.class, classLoader)) {
+            codecs.add(codec);
+        }
+        return create(codecs);
+    }
+
+    public static @NotNull CodecRegistry create(@NotNull Collection<? extends PacketCodec<?>> codecs) {
+        int maxId = -1;
+        Map<Class<?>, PacketCodec<?>> codecsByType = new HashMap<>();
+        for (PacketCodec<?> codec : codecs) {
+            if (codec.id() < 0 || codec.id() > MAX_ID) {
+                throw new IllegalArgumentException("Codec id of %s must be between 0 and %d, got %d."
+                        .formatted(codec.type().getName(), MAX_ID, codec.id()));
+            }
+
+            if (codecsByType.put(codec.type(), codec) != null) {
+                throw new IllegalArgumentException(
+                        "Type %s has more than one codec.".formatted(codec.type().getName()));
+            }
+            maxId = Math.max(maxId, codec.id());
+        }
+
+        PacketCodec<?>[] codecsById = new PacketCodec<?>[maxId + 1];
+        for (PacketCodec<?> codec : codecs) {
+            PacketCodec<?> existingCodec = codecsById[codec.id()];
+            if (existingCodec != null) {
+                throw new IllegalArgumentException("Codec id %d is used by both %s and %s."
+                        .formatted(codec.id(), existingCodec.type().getName(), codec.type().getName()));
+            }
+            codecsById[codec.id()] = codec;
+        }
+        return new CodecRegistry(codecsById, codecsByType);
+    }
+
+    public <T> @Nullable PacketCodec<T> codecOf(@NotNull Class<T> type) {
+        //noinspection unchecked
+        return (PacketCodec<T>) codecsByType.get(type);
+    }
+
+    public @Nullable PacketCodec<?> codecOf(int id) {
+        if (id < 0 || id >= codecsById.length) {
+            return null;
+        }
+        return codecsById[id];
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.rift.serializer.codec;
+
+import io.github.rift.serializer.BinarySerializer;
+import io.github.rift.serializer.Serializer;
+import io.github.rift.serializer.SerializerException;
+import java.util.Base64;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link Serializer}, which encodes values of types with a generated {@link PacketCodec} without any
+ * reflection, and hands every other value to a fallback serializer.
+ *
+ * <p>Encoded payloads start with {@link #ENCODED_MARKER} and the varint id of the codec, followed by
+ * the fields of the value. Payloads without the marker are handed to the fallback untouched, so the
+ * serializer can be rolled out next to existing payloads. Payloads requested as strings are the
+ * marker followed by the base64 encoding of the binary payload.
+ *
+ * <p>Raw payloads (used for map fields) always go through the fallback, so that their representation
+ * stays stable, but encoded raw payloads are still understood on the way back.
+ */
+public final class CodecSerializer implements BinarySerializer {
+
+    static final byte ENCODED_MARKER = 0x03;
+    private static final int INITIAL_BUFFER_CAPACITY = 256;
+
+    private final @NotNull BinarySerializer fallback;
+    private final @NotNull CodecRegistry registry;
+    private final ThreadLocal<CodecWriter> writers;
+
+    private CodecSerializer(@NotNull Serializer fallback, @NotNull CodecRegistry registry) {
+        this.fallback = BinarySerializer.of(fallback);
+        this.registry = registry;
+        this.writers = ThreadLocal.withInitial(() -> new CodecWriter(registry, INITIAL_BUFFER_CAPACITY));
+    }
+
+    /**
+     * Creates a codec serializer using every codec visible to the class loader of this class.
+     */
+    public static @NotNull CodecSerializer create(@NotNull Serializer fallback) {
+        return create(fallback, CodecRegistry.create(CodecSerializer.class.getClassLoader()));
+    }
+
+    public static @NotNull CodecSerializer create(@NotNull Serializer fallback, @NotNull ClassLoader classLoader) {
+        return create(fallback, CodecRegistry.create(classLoader));
+    }
+
+    public static @NotNull CodecSerializer create(@NotNull Serializer fallback, @NotNull CodecRegistry registry) {
+        return new CodecSerializer(fallback, registry);
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> String serialize(@Nullable V value) throws SerializerException {
+        byte[] payload = encode(value);
+        if (payload == null) {
+            return fallback.serialize(value);
+        }
+        return (char) ENCODED_MARKER + Base64.getEncoder().encodeToString(payload);
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> V deserialize(@Nullable String payload) throws SerializerException {
+        if (!isEncoded(payload)) {
+            return fallback.deserialize(payload);
+        }
+        return decode(payload);
+    }
+
+    @Override
+    public @Nullable String serializeRaw(@Nullable Object value) throws SerializerException {
+        return fallback.serializeRaw(value);
+    }
+
+    @Override
+    public <V> @Nullable V deserializeRaw(@Nullable String payload) throws SerializerException {
+        if (!isEncoded(payload)) {
+            return fallback.deserializeRaw(payload);
+        }
+        return decode(payload);
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public <V> byte @Nullable [] serializeToBytes(@Nullable V value) throws SerializerException {
+        byte[] payload = encode(value);
+        if (payload == null) {
+            return fallback.serializeToBytes(value);
+        }
+        return payload;
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> V deserializeFromBytes(byte @Nullable [] payload) throws SerializerException {
+        if (!isEncoded(payload)) {
+            return fallback.deserializeFromBytes(payload);
+        }
+        return decode(payload);
+    }
+
+    @Override
+    public byte @Nullable [] serializeRawToBytes(@Nullable Object value) throws SerializerException {
+        return fallback.serializeRawToBytes(value);
+    }
+
+    @Override
+    public <V> @Nullable V deserializeRawFromBytes(byte @Nullable [] payload) throws SerializerException {
+        if (!isEncoded(payload)) {
+            return fallback.deserializeRawFromBytes(payload);
+        }
+        return decode(payload);
+    }
+
+    private byte[] encode(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        PacketCodec<Object> codec = (PacketCodec<Object>) registry.codecOf(value.getClass());
+        if (codec == null) {
+            return null;
+        }
+
+        CodecWriter writer = writers.get();
+        writer.reset();
+        writer.writeByte(ENCODED_MARKER);
+        writer.writeVarInt(codec.id());
+        codec.encode(value, writer);
+        return writer.toByteArray();
+    }
+
+    private <V> V decode(byte[] payload) {
+        CodecReader reader = new CodecReader(registry, payload, 1);
+        int id = reader.readVarInt();
+        PacketCodec<?> codec = registry.codecOf(id);
+        if (codec == null) {
+            throw new SerializerException("Could not decode payload, because codec %d is unknown.".formatted(id));
+        }
+        //noinspection unchecked
+        return (V) codec.decode(reader);
+    }
+
+    private <V> V decode(String payload) {
+        try {
+            return decode(Base64.getDecoder().decode(payload.substring(1)));
+        } catch (IllegalArgumentException exception) {
+            throw new SerializerException("Could not decode payload, because it is not valid base64.", exception);
+        }
+    }
+
+    private static boolean isEncoded(byte[] payload) {
+        return payload != null && payload.length > 0 && payload[0] == ENCODED_MARKER;
+    }
+
+    private static boolean isEncoded(String payload) {
+        return payload != null && !payload.isEmpty() && payload.charAt(0) == ENCODED_MARKER;
+    }
+}
@@ -0,0 +1,276 @@
+package io.github.rift.serializer.codec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.github.rift.serializer.SerializerException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Growable buffer, which generated codecs write their fields into.
+ *
+ * <p>Integers are written as zigzag encoded varints, so that small values take a single byte. Lengths
+ * of nullable values are shifted by one, with zero standing for {@code null}.
+ */
+public final class CodecWriter {
+
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final CodecRegistry registry;
+    private final int initialCapacity;
+    private byte[] buffer;
+    private int position;
+
+    CodecWriter(CodecRegistry registry, int initialCapacity) {
+        this.registry = registry;
+        this.initialCapacity = initialCapacity;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    void reset() {
+        // Do not let a single huge payload pin its buffer to the thread forever.
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[initialCapacity];
+        }
+        position = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    public void writeByte(byte value) {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    public void writeShort(short value) {
+        writeInt(value);
+    }
+
+    public void writeChar(char value) {
+        writeVarInt(value);
+    }
+
+    public void writeInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeFloat(float value) {
+        writeFixedInt(Float.floatToIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+        writeFixedLong(Double.doubleToLongBits(value));
+    }
+
+    public void writeBoxedBoolean(@Nullable Boolean value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeBoolean(value);
+        }
+    }
+
+    public void writeBoxedByte(@Nullable Byte value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeByte(value);
+        }
+    }
+
+    public void writeBoxedShort(@Nullable Short value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeShort(value);
+        }
+    }
+
+    public void writeBoxedChar(@Nullable Character value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeChar(value);
+        }
+    }
+
+    public void writeBoxedInt(@Nullable Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeInt(value);
+        }
+    }
+
+    public void writeBoxedLong(@Nullable Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value);
+        }
+    }
+
+    public void writeBoxedFloat(@Nullable Float value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeFloat(value);
+        }
+    }
+
+    public void writeBoxedDouble(@Nullable Double value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeDouble(value);
+        }
+    }
+
+    public void writeString(@Nullable String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        int length = value.length();
+        for (int index = 0; index < length; index++) {
+            if (value.charAt(index) >= 0x80) {
+                byte[] encoded = value.getBytes(UTF_8);
+                writeVarInt(encoded.length + 1);
+                writeRaw(encoded, encoded.length);
+                return;
+            }
+        }
+
+        // ASCII only, which is the common case for identifiers and names, skips the intermediate array
+        writeVarInt(length + 1);
+        ensureCapacity(length);
+        for (int index = 0; index < length; index++) {
+            buffer[position++] = (byte) value.charAt(index);
+        }
+    }
+
+    public void writeUuid(@Nullable UUID value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeFixedLong(value.getMostSignificantBits());
+            writeFixedLong(value.getLeastSignificantBits());
+        }
+    }
+
+    public void writeBytes(byte @Nullable [] value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(value.length + 1);
+        writeRaw(value, value.length);
+    }
+
+    public void writeEnum(@Nullable Enum<?> value) {
+        // Names rather than ordinals, so that constants can be reordered without breaking payloads.
+        writeString(value == null ? null : value.name());
+    }
+
+    /**
+     * Writes a value of any type with a registered codec, prefixed by the id of that codec.
+     */
+    public void writeObject(@Nullable Object value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        PacketCodec<Object> codec = (PacketCodec<Object>) registry.codecOf(value.getClass());
+        if (codec == null) {
+            throw new SerializerException(
+                    "Could not encode %s, because it has no registered codec.".formatted(value.getClass()));
+        }
+        writeVarInt(codec.id() + 1);
+        codec.encode(value, this);
+    }
+
+    public <T> void writeCollection(@Nullable Collection<T> value, @NotNull Encoder<? super T> elementEncoder) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        writeVarInt(value.size() + 1);
+        for (T element : value) {
+            elementEncoder.encode(this, element);
+        }
+    }
+
+    public <K, V> void writeMap(
+            @Nullable Map<K, V> value,
+            @NotNull Encoder<? super K> keyEncoder,
+            @NotNull Encoder<? super V> valueEncoder) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        writeVarInt(value.size() + 1);
+        for (Map.Entry<K, V> entry : value.entrySet()) {
+            keyEncoder.encode(this, entry.getKey());
+            valueEncoder.encode(this, entry.getValue());
+        }
+    }
+
+    void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeFixedInt(int value) {
+        ensureCapacity(4);
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeFixedLong(long value) {
+        writeFixedInt((int) (value >>> 32));
+        writeFixedInt((int) value);
+    }
+
+    private void writeRaw(byte[] bytes, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, 0, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + additional));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Encoder<T> {
+
+        void encode(@NotNull CodecWriter writer, T value);
+    }
+}
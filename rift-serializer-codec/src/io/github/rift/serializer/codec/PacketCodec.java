@@ -0,0 +1,22 @@
+package io.github.rift.serializer.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Encoder and decoder of a single type, usually generated from a {@link RiftCodec} annotated type
+ * and discovered by {@link CodecRegistry} through {@link java.util.ServiceLoader}.
+ *
+ * @param <T> the type handled by this codec
+ */
+public interface PacketCodec<T> {
+
+    int id();
+
+    @NotNull
+    Class<T> type();
+
+    void encode(@NotNull T value, @NotNull CodecWriter writer);
+
+    @NotNull
+    T decode(@NotNull CodecReader reader);
+}
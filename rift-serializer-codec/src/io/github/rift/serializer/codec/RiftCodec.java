@@ -0,0 +1,30 @@
+package io.github.rift.serializer.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a packet or value type, for which a reflection-free {@link PacketCodec} is generated at build
+ * time by the {@code rift-serializer-codec-processor} annotation processor.
+ *
+ * <p>The annotated type has to be a concrete, non-generic class with a no-argument constructor,
+ * which may be private. Its non-static, non-transient fields must not be final; they are accessed
+ * directly, through their getter and setter, or otherwise through a var handle, so they may be
+ * private as well.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface RiftCodec {
+
+    /**
+     * Stable identifier written in front of every payload of the annotated type. It has to be unique
+     * among all codecs and must never be reused for another type.
+     *
+     * @return non-negative identifier of the type
+     */
+    int id();
+}
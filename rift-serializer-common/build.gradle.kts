@@ -5,6 +5,7 @@ plugins {
 
 dependencies {
     api(libs.wisp)
+    compileOnly(libs.lz4.java)
 }
 
 riftPublish {
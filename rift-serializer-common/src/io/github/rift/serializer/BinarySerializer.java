@@ -0,0 +1,114 @@
+package io.github.rift.serializer;
+
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link Serializer} which is also able to produce and consume payloads as bytes, without going
+ * through an intermediate {@link String}.
+ */
+public interface BinarySerializer extends Serializer {
+
+    /**
+     * Adapts the given serializer into a binary one. Binary serializers are returned as they are, any
+     * other serializer has its payloads encoded as UTF-8.
+     *
+     * @param serializer The serializer to adapt
+     * @return binary serializer backed by the given serializer
+     */
+    static @NotNull BinarySerializer of(@NotNull Serializer serializer) {
+        if (serializer instanceof BinarySerializer binarySerializer) {
+            return binarySerializer;
+        }
+        return new Utf8BinarySerializer(serializer);
+    }
+
+    /**
+     * Serializes a Serializable object into a binary payload.
+     *
+     * @param value The object to serialize
+     * @param <V>   The type of the object
+     * @return binary representation of the object, or null if input is null
+     * @throws SerializerException if serialization fails
+     */
+    @Contract("null -> null; !null -> !null")
+    default <V> byte @Nullable [] serializeToBytes(@Nullable V value) throws SerializerException {
+        return serializeRawToBytes(value);
+    }
+    /**
+     * Deserializes a binary payload into a Serializable object.
+     *
+     * @param payload The binary payload to deserialize
+     * @param <V>     The type of the object
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Nullable
+    @Contract("null -> null; !null -> !null")
+    default <V> V deserializeFromBytes(byte @Nullable [] payload) throws SerializerException {
+        return deserializeRawFromBytes(payload);
+    }
+    /**
+     * Deserializes the remaining bytes of a buffer into a Serializable object.
+     *
+     * @param payload The buffer holding binary payload to deserialize
+     * @param <V>     The type of the object
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Nullable
+    @Contract("null -> null; !null -> !null")
+    default <V> V deserializeFromBytes(@Nullable ByteBuffer payload) throws SerializerException {
+        return deserializeFromBytes(toByteArray(payload));
+    }
+    /**
+     * Serializes an object into a binary payload.
+     *
+     * @param value The object to serialize
+     * @return binary representation of the object, or null if input is null
+     * @throws SerializerException if serialization fails
+     */
+    @Contract("null -> null; !null -> !null")
+    byte @Nullable [] serializeRawToBytes(@Nullable Object value) throws SerializerException;
+    /**
+     * Deserializes a binary payload into an object.
+     *
+     * @param payload The binary payload to deserialize
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Nullable
+    @Contract("null -> null; !null -> !null")
+    <V> V deserializeRawFromBytes(byte @Nullable [] payload) throws SerializerException;
+    /**
+     * Deserializes the remaining bytes of a buffer into an object.
+     *
+     * @param payload The buffer holding binary payload to deserialize
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Nullable
+    @Contract("null -> null; !null -> !null")
+    default <V> V deserializeRawFromBytes(@Nullable ByteBuffer payload) throws SerializerException {
+        return deserializeRawFromBytes(toByteArray(payload));
+    }
+
+    private static byte[] toByteArray(ByteBuffer buffer) {
+        if (buffer == null) {
+            return null;
+        }
+
+        if (buffer.hasArray()
+                && buffer.arrayOffset() == 0
+                && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
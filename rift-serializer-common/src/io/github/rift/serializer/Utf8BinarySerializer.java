@@ -0,0 +1,67 @@
+package io.github.rift.serializer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Adapts a text based {@link Serializer} into a {@link BinarySerializer} by encoding its payloads as
+ * UTF-8.
+ */
+final class Utf8BinarySerializer implements BinarySerializer {
+
+    private final @NotNull Serializer delegate;
+
+    Utf8BinarySerializer(@NotNull Serializer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public @Nullable <V> String serialize(@Nullable V value) throws SerializerException {
+        return delegate.serialize(value);
+    }
+
+    @Override
+    public @Nullable <V> V deserialize(@Nullable String payload) throws SerializerException {
+        return delegate.deserialize(payload);
+    }
+
+    @Override
+    public @Nullable String serializeRaw(@Nullable Object value) throws SerializerException {
+        return delegate.serializeRaw(value);
+    }
+
+    @Override
+    public <V> @Nullable V deserializeRaw(@Nullable String payload) throws SerializerException {
+        return delegate.deserializeRaw(payload);
+    }
+
+    @Override
+    public <V> byte @Nullable [] serializeToBytes(@Nullable V value) throws SerializerException {
+        return encode(delegate.serialize(value));
+    }
+
+    @Override
+    public <V> @Nullable V deserializeFromBytes(byte @Nullable [] payload) throws SerializerException {
+        return delegate.deserialize(decode(payload));
+    }
+
+    @Override
+    public byte @Nullable [] serializeRawToBytes(@Nullable Object value) throws SerializerException {
+        return encode(delegate.serializeRaw(value));
+    }
+
+    @Override
+    public <V> @Nullable V deserializeRawFromBytes(byte @Nullable [] payload) throws SerializerException {
+        return delegate.deserializeRaw(decode(payload));
+    }
+
+    private static byte[] encode(String payload) {
+        return payload == null ? null : payload.getBytes(UTF_8);
+    }
+
+    private static String decode(byte[] payload) {
+        return payload == null ? null : new String(payload, UTF_8);
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.rift.serializer.compression;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.github.rift.serializer.BinarySerializer;
+import io.github.rift.serializer.Serializer;
+import io.github.rift.serializer.SerializerException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link Serializer} decorator, which compresses payloads produced by {@link #serialize(Object)} once
+ * they reach the configured size threshold.
+ *
+ * <p>Compressed payloads start with a header made of {@link #COMPRESSED_MARKER} and the {@link
+ * CompressionCodec#id() id} of the codec which produced them, followed by the base64 encoded
+ * compressed bytes. Payloads without the header are handed to the delegate untouched, so compressed
+ * and uncompressed payloads can coexist, e.g. while the serializer is being rolled out.
+ *
+ * <p>Binary payloads skip base64 and carry {@link #COMPRESSED_BINARY_MARKER} and the codec id as their
+ * first two bytes instead; binary deserialization understands both forms.
+ *
+ * <p>Raw payloads (used for map fields) are never compressed, so that their representation stays
+ * stable, but compressed raw payloads are still understood on the way back.
+ */
+public final class CompressingSerializer implements BinarySerializer {
+
+    static final char COMPRESSED_MARKER = '\u0001';
+    static final byte COMPRESSED_BINARY_MARKER = 0x02;
+    private static final int HEADER_LENGTH = 2;
+
+    private final @NotNull BinarySerializer delegate;
+    private final @NotNull CompressionCodec codec;
+    private final int threshold;
+    private final Map<Character, CompressionCodec> codecsById;
+
+    private CompressingSerializer(
+            @NotNull Serializer delegate,
+            @NotNull CompressionCodec codec,
+            int threshold,
+            CompressionCodec... decompressionCodecs) {
+        this.delegate = BinarySerializer.of(delegate);
+        this.codec = codec;
+        this.threshold = threshold;
+        this.codecsById = new HashMap<>();
+        for (CompressionCodec decompressionCodec : decompressionCodecs) {
+            codecsById.put(decompressionCodec.id(), decompressionCodec);
+        }
+        codecsById.put(codec.id(), codec);
+    }
+
+    /**
+     * Creates a compressing serializer.
+     *
+     * @param delegate            The serializer producing uncompressed payloads
+     * @param codec               The codec used to compress payloads
+     * @param threshold           The minimal length of a payload, that gets compressed
+     * @param decompressionCodecs Additional codecs understood while decompressing, e.g. the previous
+     *                            codec while migrating to another one
+     * @return compressing serializer
+     */
+    public static @NotNull CompressingSerializer create(
+            @NotNull Serializer delegate,
+            @NotNull CompressionCodec codec,
+            int threshold,
+            @NotNull CompressionCodec... decompressionCodecs) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative, got %d.".formatted(threshold));
+        }
+        return new CompressingSerializer(delegate, codec, threshold, decompressionCodecs);
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> String serialize(@Nullable V value) throws SerializerException {
+        return compress(delegate.serialize(value));
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> V deserialize(@Nullable String payload) throws SerializerException {
+        return delegate.deserialize(decompress(payload));
+    }
+
+    @Override
+    public @Nullable String serializeRaw(@Nullable Object value) throws SerializerException {
+        return delegate.serializeRaw(value);
+    }
+
+    @Override
+    public <V> @Nullable V deserializeRaw(@Nullable String payload) throws SerializerException {
+        return delegate.deserializeRaw(decompress(payload));
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public <V> byte @Nullable [] serializeToBytes(@Nullable V value) throws SerializerException {
+        return compress(delegate.serializeToBytes(value));
+    }
+
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> V deserializeFromBytes(byte @Nullable [] payload) throws SerializerException {
+        return delegate.deserializeFromBytes(decompress(payload));
+    }
+
+    @Override
+    public byte @Nullable [] serializeRawToBytes(@Nullable Object value) throws SerializerException {
+        return delegate.serializeRawToBytes(value);
+    }
+
+    @Override
+    public <V> @Nullable V deserializeRawFromBytes(byte @Nullable [] payload) throws SerializerException {
+        return delegate.deserializeRawFromBytes(decompress(payload));
+    }
+
+    private byte[] compress(byte[] payload) {
+        if (payload == null || payload.length < threshold) {
+            return payload;
+        }
+
+        byte[] compressed = codec.compress(payload);
+        if (HEADER_LENGTH + compressed.length >= payload.length) {
+            return payload;
+        }
+
+        byte[] framed = new byte[HEADER_LENGTH + compressed.length];
+        framed[0] = COMPRESSED_BINARY_MARKER;
+        framed[1] = (byte) codec.id();
+        System.arraycopy(compressed, 0, framed, HEADER_LENGTH, compressed.length);
+        return framed;
+    }
+
+    private byte[] decompress(byte[] payload) {
+        if (payload == null || payload.length < HEADER_LENGTH) {
+            return payload;
+        }
+
+        if (payload[0] == COMPRESSED_MARKER) {
+            return decompress(new String(payload, UTF_8)).getBytes(UTF_8);
+        }
+
+        if (payload[0] != COMPRESSED_BINARY_MARKER) {
+            return payload;
+        }
+
+        byte[] compressed = new byte[payload.length - HEADER_LENGTH];
+        System.arraycopy(payload, HEADER_LENGTH, compressed, 0, compressed.length);
+        return codecOf((char) payload[1]).decompress(compressed);
+    }
+
+    private CompressionCodec codecOf(char id) {
+        CompressionCodec payloadCodec = codecsById.get(id);
+        if (payloadCodec == null) {
+            throw new SerializerException("Could not decompress payload, because codec %s is unknown.".formatted(id));
+        }
+        return payloadCodec;
+    }
+
+    private String compress(String payload) {
+        if (payload == null || payload.length() < threshold) {
+            return payload;
+        }
+
+        byte[] compressed = codec.compress(payload.getBytes(UTF_8));
+
+        // base64 inflates the compressed bytes by a third, so poorly compressible payloads would grow
+        int encodedLength = HEADER_LENGTH + 4 * ((compressed.length + 2) / 3);
+        if (encodedLength >= payload.length()) {
+            return payload;
+        }
+
+        return new StringBuilder(encodedLength)
+                .append(COMPRESSED_MARKER)
+                .append(codec.id())
+                .append(Base64.getEncoder().encodeToString(compressed))
+                .toString();
+    }
+
+    private String decompress(String payload) {
+        if (payload == null || payload.length() < HEADER_LENGTH || payload.charAt(0) != COMPRESSED_MARKER) {
+            return payload;
+        }
+
+        CompressionCodec payloadCodec = codecOf(payload.charAt(1));
+        try {
+            byte[] compressed = Base64.getDecoder().decode(payload.substring(HEADER_LENGTH));
+            return new String(payloadCodec.decompress(compressed), UTF_8);
+        } catch (IllegalArgumentException exception) {
+            throw new SerializerException("Could not decompress payload, because it is not valid base64.", exception);
+        }
+    }
+}
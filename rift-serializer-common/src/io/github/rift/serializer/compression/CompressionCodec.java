@@ -0,0 +1,41 @@
+package io.github.rift.serializer.compression;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Block compression algorithm used by {@link CompressingSerializer}.
+ */
+public interface CompressionCodec {
+
+    /**
+     * Largest payload the built-in codecs decompress unless configured otherwise, so that a malformed
+     * or hostile header cannot make them allocate arbitrary amounts of memory.
+     */
+    int DEFAULT_MAX_DECOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * Identifier of this codec, written into the header of every payload it compresses. It has to stay
+     * stable, because payloads are decompressed with the codec resolved from their header.
+     *
+     * @return printable ASCII character identifying this codec
+     */
+    char id();
+
+    /**
+     * Compresses the given bytes.
+     *
+     * @param payload The bytes to compress
+     * @return compressed representation of the payload
+     * @throws io.github.rift.serializer.SerializerException if compression fails
+     */
+    byte @NotNull [] compress(byte @NotNull [] payload);
+
+    /**
+     * Decompresses bytes previously produced by {@link #compress(byte[])}.
+     *
+     * @param payload The compressed bytes
+     * @return original bytes of the payload
+     * @throws io.github.rift.serializer.SerializerException if decompression fails
+     */
+    byte @NotNull [] decompress(byte @NotNull [] payload);
+}
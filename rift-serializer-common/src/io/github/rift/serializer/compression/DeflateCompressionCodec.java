@@ -0,0 +1,102 @@
+package io.github.rift.serializer.compression;
+
+import io.github.rift.serializer.SerializerException;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link CompressionCodec} backed by the JDK's raw deflate implementation.
+ */
+public final class DeflateCompressionCodec implements CompressionCodec {
+
+    private static final char ID = 'D';
+
+    private final int level;
+    private final int maxDecompressedLength;
+
+    private DeflateCompressionCodec(int level, int maxDecompressedLength) {
+        this.level = level;
+        this.maxDecompressedLength = maxDecompressedLength;
+    }
+
+    /**
+     * Creates a codec which refuses to inflate payloads to more than {@code maxDecompressedLength} bytes.
+     */
+    public static @NotNull DeflateCompressionCodec create(int level, int maxDecompressedLength) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Deflate level must be between 1 and 9, got %d.".formatted(level));
+        }
+
+        if (maxDecompressedLength < 1) {
+            throw new IllegalArgumentException(
+                    "Max decompressed length must be positive, got %d.".formatted(maxDecompressedLength));
+        }
+        return new DeflateCompressionCodec(level, maxDecompressedLength);
+    }
+
+    public static @NotNull DeflateCompressionCodec create(int level) {
+        return create(level, DEFAULT_MAX_DECOMPRESSED_LENGTH);
+    }
+
+    public static @NotNull DeflateCompressionCodec create() {
+        return create(Deflater.BEST_SPEED);
+    }
+
+    @Override
+    public char id() {
+        return ID;
+    }
+
+    @Override
+    public byte @NotNull [] compress(byte @NotNull [] payload) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, payload.length / 2));
+            byte[] buffer = new byte[Math.min(8192, Math.max(64, payload.length))];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte @NotNull [] decompress(byte @NotNull [] payload) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(payload);
+
+            // Widened, as four times a large payload overflows an int.
+            int expectedLength = (int) Math.min(maxDecompressedLength, payload.length * 4L);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.min(expectedLength, 1024 * 1024));
+            byte[] buffer = new byte[Math.min(8192, Math.max(64, expectedLength))];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializerException("Could not inflate payload, because it is truncated.");
+                }
+
+                if (length > maxDecompressedLength - output.size()) {
+                    throw new SerializerException(
+                            "Could not inflate payload, because it exceeds the maximum of %d bytes."
+                                    .formatted(maxDecompressedLength));
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException exception) {
+            throw new SerializerException("Could not inflate payload, because it is malformed.", exception);
+        } finally {
+            inflater.end();
+        }
+    }
+}
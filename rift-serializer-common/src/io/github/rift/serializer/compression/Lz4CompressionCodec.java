@@ -0,0 +1,104 @@
+package io.github.rift.serializer.compression;
+
+import io.github.rift.serializer.SerializerException;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link CompressionCodec} backed by the pure-Java LZ4 block implementation of lz4-java, which has to
+ * be present on the classpath.
+ *
+ * <p>Compressed blocks are prefixed with the original length as a four byte big-endian integer.
+ */
+public final class Lz4CompressionCodec implements CompressionCodec {
+
+    private static final char ID = 'L';
+    private static final int LENGTH_PREFIX = Integer.BYTES;
+
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+    private final int maxDecompressedLength;
+
+    private Lz4CompressionCodec(LZ4Factory factory, int maxDecompressedLength) {
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+        this.maxDecompressedLength = maxDecompressedLength;
+    }
+
+    public static @NotNull Lz4CompressionCodec create() {
+        return create(DEFAULT_MAX_DECOMPRESSED_LENGTH);
+    }
+
+    /**
+     * Creates a codec which refuses to decompress payloads longer than {@code maxDecompressedLength} bytes.
+     */
+    public static @NotNull Lz4CompressionCodec create(int maxDecompressedLength) {
+        if (maxDecompressedLength < 1) {
+            throw new IllegalArgumentException(
+                    "Max decompressed length must be positive, got %d.".formatted(maxDecompressedLength));
+        }
+        return new Lz4CompressionCodec(LZ4Factory.safeInstance(), maxDecompressedLength);
+    }
+
+    @Override
+    public char id() {
+        return ID;
+    }
+
+    @Override
+    public byte @NotNull [] compress(byte @NotNull [] payload) {
+        byte[] buffer = new byte[LENGTH_PREFIX + compressor.maxCompressedLength(payload.length)];
+        writeLength(buffer, payload.length);
+
+        int compressedLength = compressor.compress(
+                payload, 0, payload.length, buffer, LENGTH_PREFIX, buffer.length - LENGTH_PREFIX);
+
+        byte[] compressed = new byte[LENGTH_PREFIX + compressedLength];
+        System.arraycopy(buffer, 0, compressed, 0, compressed.length);
+        return compressed;
+    }
+
+    @Override
+    public byte @NotNull [] decompress(byte @NotNull [] payload) {
+        if (payload.length < LENGTH_PREFIX) {
+            throw new SerializerException("Could not decompress lz4 payload, because it is truncated.");
+        }
+
+        int originalLength = readLength(payload);
+        if (originalLength < 0) {
+            throw new SerializerException("Could not decompress lz4 payload, because its length is malformed.");
+        }
+
+        if (originalLength > maxDecompressedLength) {
+            throw new SerializerException(
+                    "Could not decompress lz4 payload, because its length of %d bytes exceeds the maximum of %d."
+                            .formatted(originalLength, maxDecompressedLength));
+        }
+
+        byte[] decompressed = new byte[originalLength];
+        try {
+            int length = decompressor.decompress(
+                    payload, LENGTH_PREFIX, payload.length - LENGTH_PREFIX, decompressed, 0, originalLength);
+            if (length != originalLength) {
+                throw new SerializerException("Could not decompress lz4 payload, because it is truncated.");
+            }
+        } catch (LZ4Exception exception) {
+            throw new SerializerException("Could not decompress lz4 payload, because it is malformed.", exception);
+        }
+        return decompressed;
+    }
+
+    private static void writeLength(byte[] buffer, int length) {
+        buffer[0] = (byte) (length >>> 24);
+        buffer[1] = (byte) (length >>> 16);
+        buffer[2] = (byte) (length >>> 8);
+        buffer[3] = (byte) length;
+    }
+
+    private static int readLength(byte[] buffer) {
+        return (buffer[0] & 0xFF) << 24 | (buffer[1] & 0xFF) << 16 | (buffer[2] & 0xFF) << 8 | (buffer[3] & 0xFF);
+    }
+}
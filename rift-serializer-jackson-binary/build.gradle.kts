@@ -0,0 +1,14 @@
+plugins {
+    id("io.github.rift.java")
+    id("io.github.rift.publish")
+}
+
+dependencies {
+    api(project(":rift-serializer-jackson"))
+    compileOnly(libs.jackson.dataformat.smile)
+    compileOnly(libs.jackson.dataformat.cbor)
+}
+
+riftPublish {
+    artifactId = "rift-serializer-jackson-binary"
+}
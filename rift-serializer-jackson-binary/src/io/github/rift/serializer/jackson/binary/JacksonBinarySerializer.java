@@ -0,0 +1,151 @@
+package io.github.rift.serializer.jackson.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rift.serializer.BinarySerializer;
+import io.github.rift.serializer.SerializerException;
+import io.github.rift.serializer.jackson.JacksonSerializable;
+import java.io.IOException;
+import java.util.Base64;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Implementation of {@link BinarySerializer} using Jackson's {@link ObjectMapper} backed by a binary
+ * data format, such as Smile or CBOR.
+ *
+ * <p>Binary payloads are produced and consumed as they are. Payloads requested as strings are the
+ * base64 encoding of the binary payloads, since binary formats have no textual representation. It
+ * wraps any Jackson exceptions in {@link SerializerException} for consistent error handling.
+ */
+public final class JacksonBinarySerializer implements BinarySerializer {
+
+    private final @NotNull ObjectMapper objectMapper;
+
+    /**
+     * Creates a new Jackson-based binary serializer.
+     *
+     * @param objectMapper The Jackson ObjectMapper backed by a binary data format
+     */
+    @Contract(pure = true)
+    JacksonBinarySerializer(@NotNull ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Serializes an object into a binary payload.
+     *
+     * @param value The object to serialize
+     * @return binary representation of the object, or null if input is null
+     * @throws SerializerException if serialization fails
+     */
+    @Override
+    public byte @Nullable [] serializeRawToBytes(@Nullable Object value) throws SerializerException {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception exception) {
+            throw new SerializerException(
+                    "Could not encode %s into %s payload, because of unexpected exception."
+                            .formatted(value.getClass(), objectMapper.getFactory().getFormatName()),
+                    exception);
+        }
+    }
+
+    /**
+     * Deserializes a binary payload into an object.
+     *
+     * @param payload The binary payload to deserialize
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Override
+    public <V> @Nullable V deserializeRawFromBytes(byte @Nullable [] payload) throws SerializerException {
+        return read(payload, Object.class);
+    }
+
+    /**
+     * Deserializes a binary payload into a Representable object.
+     *
+     * @param payload The binary payload to deserialize
+     * @param <V>     The type of the object
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> V deserializeFromBytes(byte @Nullable [] payload) throws SerializerException {
+        return read(payload, JacksonSerializable.class);
+    }
+
+    /**
+     * Serializes an object into a base64 encoded binary payload.
+     *
+     * @param value The object to serialize
+     * @return base64 representation of the binary payload, or null if input is null
+     * @throws SerializerException if serialization fails
+     */
+    @Override
+    public @Nullable String serializeRaw(@Nullable Object value) throws SerializerException {
+        byte[] payload = serializeRawToBytes(value);
+        if (payload == null) {
+            return null;
+        }
+        return Base64.getEncoder().encodeToString(payload);
+    }
+
+    /**
+     * Deserializes a base64 encoded binary payload into an object.
+     *
+     * @param payload The base64 encoded payload to deserialize
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Override
+    public <V> @Nullable V deserializeRaw(@Nullable String payload) throws SerializerException {
+        return deserializeRawFromBytes(decode(payload));
+    }
+
+    /**
+     * Deserializes a base64 encoded binary payload into a Representable object.
+     *
+     * @param payload The base64 encoded payload to deserialize
+     * @param <V>     The type of the object
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> V deserialize(@Nullable String payload) throws SerializerException {
+        return deserializeFromBytes(decode(payload));
+    }
+
+    private <V> V read(byte[] payload, Class<?> type) {
+        if (payload == null) {
+            return null;
+        }
+
+        try {
+            //noinspection unchecked
+            return (V) objectMapper.readValue(payload, type);
+        } catch (IOException exception) {
+            throw new SerializerException(
+                    "Could not decode payload into instance, because of unexpected exception.", exception);
+        }
+    }
+
+    private static byte[] decode(String payload) {
+        if (payload == null) {
+            return null;
+        }
+
+        try {
+            return Base64.getDecoder().decode(payload);
+        } catch (IllegalArgumentException exception) {
+            throw new SerializerException("Could not decode payload, because it is not valid base64.", exception);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.rift.serializer.jackson.binary;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.github.rift.serializer.jackson.JacksonSerializerFactory;
+import io.github.rift.serializer.jackson.JacksonTypeRegistry;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates {@link JacksonBinarySerializer}s sharing the configuration of {@link
+ * JacksonSerializerFactory}, so existing packets and values need no changes. The Smile and CBOR
+ * backends are optional dependencies; only the one in use has to be on the classpath.
+ */
+public final class JacksonBinarySerializerFactory {
+
+    private JacksonBinarySerializerFactory() {}
+
+    public static @NotNull JacksonBinarySerializer create(@NotNull ObjectMapper objectMapper) {
+        return new JacksonBinarySerializer(objectMapper);
+    }
+
+    public static @NotNull JacksonBinarySerializer createSmile() {
+        return create(SmileBackend.mapper());
+    }
+
+    public static @NotNull JacksonBinarySerializer createSmile(@NotNull JacksonTypeRegistry typeRegistry) {
+        return create(JacksonSerializerFactory.registerTypeRegistry(SmileBackend.mapper(), typeRegistry));
+    }
+
+    public static @NotNull JacksonBinarySerializer createCbor() {
+        return create(CborBackend.mapper());
+    }
+
+    public static @NotNull JacksonBinarySerializer createCbor(@NotNull JacksonTypeRegistry typeRegistry) {
+        return create(JacksonSerializerFactory.registerTypeRegistry(CborBackend.mapper(), typeRegistry));
+    }
+
+    private static @NotNull ObjectMapper configure(@NotNull ObjectMapper mapper) {
+        JacksonSerializerFactory.configure(mapper);
+        // Binary formats would write UUIDs as raw bytes, which untyped (raw) deserialization of map
+        // fields would hand back as byte arrays instead of the strings produced by the json serializer.
+        mapper.configOverride(UUID.class).setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.STRING));
+        return mapper;
+    }
+
+    /**
+     * Only refers to the Smile backend, so that verifying the factory does not load it.
+     */
+    private static final class SmileBackend {
+
+        static ObjectMapper mapper() {
+            return configure(new SmileMapper());
+        }
+    }
+
+    /**
+     * Only refers to the CBOR backend, so that verifying the factory does not load it.
+     */
+    private static final class CborBackend {
+
+        static ObjectMapper mapper() {
+            return configure(new CBORMapper());
+        }
+    }
+}
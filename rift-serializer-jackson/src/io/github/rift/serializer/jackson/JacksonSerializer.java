@@ -1,6 +1,7 @@
 package io.github.rift.serializer.jackson;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rift.serializer.BinarySerializer;
 import io.github.rift.serializer.Serializer;
 import io.github.rift.serializer.SerializerException;
 import java.io.IOException;
@@ -13,10 +14,10 @@ import org.jetbrains.annotations.Nullable;
  * and deserialization.
  *
  * <p>This serializer handles converting {@link JacksonSerializable} objects to and from JSON
- * strings. It wraps any Jackson exceptions in {@link SerializerException} for consistent error
- * handling.
+ * strings, or UTF-8 encoded JSON bytes when used as a {@link BinarySerializer}. It wraps any Jackson
+ * exceptions in {@link SerializerException} for consistent error handling.
  */
-public final class JacksonSerializer implements Serializer {
+public final class JacksonSerializer implements BinarySerializer {
 
     private final @NotNull ObjectMapper objectMapper;
 
@@ -113,4 +114,73 @@ public final class JacksonSerializer implements Serializer {
                     "Could not decode payload into instance, because of unexpected exception.", exception);
         }
     }
+
+    /**
+     * Serializes an object into UTF-8 encoded JSON bytes.
+     *
+     * @param value The object to serialize
+     * @return JSON bytes representation of the object, or null if input is null
+     * @throws SerializerException if serialization fails
+     */
+    @Override
+    public byte @Nullable [] serializeRawToBytes(@Nullable Object value) throws SerializerException {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception exception) {
+            throw new SerializerException(
+                    "Could not encode %s into json payload, because of unexpected exception."
+                            .formatted(value.getClass()),
+                    exception);
+        }
+    }
+
+    /**
+     * Deserializes UTF-8 encoded JSON bytes into an object.
+     *
+     * @param payload The JSON bytes to deserialize
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Override
+    public <V> @Nullable V deserializeRawFromBytes(byte @Nullable [] payload) throws SerializerException {
+        if (payload == null) {
+            return null;
+        }
+
+        try {
+            //noinspection unchecked
+            return (V) objectMapper.readValue(payload, Object.class);
+        } catch (IOException exception) {
+            throw new SerializerException(
+                    "Could not decode payload into instance, because of unexpected exception.", exception);
+        }
+    }
+
+    /**
+     * Deserializes UTF-8 encoded JSON bytes into a Representable object.
+     *
+     * @param payload The JSON bytes to deserialize
+     * @param <V>     The type of the object
+     * @return The deserialized object, or null if input is null
+     * @throws SerializerException if deserialization fails
+     */
+    @Override
+    @Contract("null -> null; !null -> !null")
+    public @Nullable <V> V deserializeFromBytes(byte @Nullable [] payload) throws SerializerException {
+        if (payload == null) {
+            return null;
+        }
+
+        try {
+            //noinspection unchecked
+            return (V) objectMapper.readValue(payload, JacksonSerializable.class);
+        } catch (IOException exception) {
+            throw new SerializerException(
+                    "Could not decode payload into instance, because of unexpected exception.", exception);
+        }
+    }
 }
@@ -27,8 +27,46 @@ public final class JacksonSerializerFactory {
         return create(mapper);
     }
 
+    /**
+     * Creates a serializer, which writes type information of registered types as their numeric ids
+     * instead of class names.
+     *
+     * @param typeRegistry The registry of type ids
+     * @return serializer using the given type registry
+     */
+    public static @NotNull JacksonSerializer create(@NotNull JacksonTypeRegistry typeRegistry) {
+        ObjectMapper mapper = createObjectMapper();
+        registerTypeRegistry(mapper, typeRegistry);
+        return create(mapper);
+    }
+
+    /**
+     * Applies the type registry to the given mapper, so that registered types are written with their
+     * numeric ids instead of class names.
+     *
+     * @param mapper       The mapper to configure
+     * @param typeRegistry The registry of type ids
+     * @return the given mapper
+     */
+    public static @NotNull ObjectMapper registerTypeRegistry(
+            @NotNull ObjectMapper mapper, @NotNull JacksonTypeRegistry typeRegistry) {
+        mapper.setHandlerInstantiator(new JacksonTypeRegistryInstantiator(typeRegistry));
+        mapper.addMixIn(JacksonSerializable.class, JacksonTypeRegistryMixin.class);
+        return mapper;
+    }
+
     private static @NotNull ObjectMapper createObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
+
+    /**
+     * Applies the visibility, inclusion and polymorphic type configuration shared by every Rift
+     * serializer to the given mapper, regardless of the data format it is backed by.
+     *
+     * @param mapper The mapper to configure
+     * @return the given mapper
+     */
+    public static @NotNull ObjectMapper configure(@NotNull ObjectMapper mapper) {
         mapper.setVisibility(mapper.getSerializationConfig()
                 .getDefaultVisibilityChecker()
                 .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
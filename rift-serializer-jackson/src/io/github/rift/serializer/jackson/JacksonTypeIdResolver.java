@@ -0,0 +1,87 @@
+package io.github.rift.serializer.jackson;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves type ids through a {@link JacksonTypeRegistry}, falling back to class names for types
+ * which are not registered.
+ */
+final class JacksonTypeIdResolver implements TypeIdResolver {
+
+    private final JacksonTypeRegistry typeRegistry;
+    private final MapperConfig<?> config;
+    private final Map<String, JavaType> resolvedTypes = new ConcurrentHashMap<>();
+    private JavaType baseType;
+    private ClassNameIdResolver classNameIdResolver;
+
+    JacksonTypeIdResolver(JacksonTypeRegistry typeRegistry, MapperConfig<?> config) {
+        this.typeRegistry = typeRegistry;
+        this.config = config;
+    }
+
+    @Override
+    public void init(JavaType baseType) {
+        this.baseType = baseType;
+        this.classNameIdResolver =
+                ClassNameIdResolver.construct(baseType, config, config.getPolymorphicTypeValidator());
+    }
+
+    @Override
+    public String idFromValue(Object value) {
+        return idFromValueAndType(value, value.getClass());
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> suggestedType) {
+        String id = typeRegistry.idOf(suggestedType);
+        if (id != null) {
+            return id;
+        }
+        return classNameIdResolver.idFromValueAndType(value, suggestedType);
+    }
+
+    @Override
+    public String idFromBaseType() {
+        return classNameIdResolver.idFromBaseType();
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+        if (!typeRegistry.isRegistryId(id)) {
+            return classNameIdResolver.typeFromId(context, id);
+        }
+
+        JavaType type = resolvedTypes.get(id);
+        if (type != null) {
+            return type;
+        }
+
+        Class<?> registeredType = typeRegistry.typeOf(id);
+        if (registeredType == null) {
+            // Unknown ids are reported by Jackson itself, the same way as unknown class names.
+            return null;
+        }
+
+        type = context.constructSpecializedType(baseType, registeredType);
+        resolvedTypes.put(id, type);
+        return type;
+    }
+
+    @Override
+    public String getDescForKnownTypeIds() {
+        return "registered type id or class name";
+    }
+
+    @Override
+    public JsonTypeInfo.Id getMechanism() {
+        return JsonTypeInfo.Id.CUSTOM;
+    }
+}
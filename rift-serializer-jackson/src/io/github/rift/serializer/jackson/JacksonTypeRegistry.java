@@ -0,0 +1,67 @@
+package io.github.rift.serializer.jackson;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Registry of short, stable numeric type ids, which replace fully qualified class names in the type
+ * information of {@link JacksonSerializable} payloads.
+ *
+ * <p>Ids have to be the same on every node sharing payloads, and must never be reused for another
+ * class. Classes which are not registered keep being written with their class name, and payloads
+ * carrying class names remain readable, so types can be registered gradually.
+ */
+public final class JacksonTypeRegistry {
+
+    private final Map<Class<?>, String> idsByType = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> typesById = new ConcurrentHashMap<>();
+
+    private JacksonTypeRegistry() {}
+
+    public static @NotNull JacksonTypeRegistry create() {
+        return new JacksonTypeRegistry();
+    }
+
+    /**
+     * Registers a type under the given id.
+     *
+     * @param id   The non-negative id of the type
+     * @param type The type to register
+     * @return this registry
+     * @throws IllegalArgumentException if the id or the type is already registered
+     */
+    public @NotNull JacksonTypeRegistry register(int id, @NotNull Class<? extends JacksonSerializable> type) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Type id must not be negative, got %d.".formatted(id));
+        }
+
+        String typeId = Integer.toString(id);
+        Class<?> existingType = typesById.putIfAbsent(typeId, type);
+        if (existingType != null) {
+            throw new IllegalArgumentException(
+                    "Type id %d is already registered for %s.".formatted(id, existingType.getName()));
+        }
+
+        if (idsByType.putIfAbsent(type, typeId) != null) {
+            typesById.remove(typeId);
+            throw new IllegalArgumentException("Type %s is already registered.".formatted(type.getName()));
+        }
+        return this;
+    }
+
+    @Nullable
+    String idOf(Class<?> type) {
+        return idsByType.get(type);
+    }
+
+    @Nullable
+    Class<?> typeOf(String id) {
+        return typesById.get(id);
+    }
+
+    boolean isRegistryId(String id) {
+        return !id.isEmpty() && Character.isDigit(id.charAt(0));
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.rift.serializer.jackson;
+
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.cfg.HandlerInstantiator;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+
+/**
+ * Provides {@link JacksonTypeIdResolver} instances bound to a {@link JacksonTypeRegistry}, leaving
+ * every other handler to Jackson's defaults.
+ */
+final class JacksonTypeRegistryInstantiator extends HandlerInstantiator {
+
+    private final JacksonTypeRegistry typeRegistry;
+
+    JacksonTypeRegistryInstantiator(JacksonTypeRegistry typeRegistry) {
+        this.typeRegistry = typeRegistry;
+    }
+
+    @Override
+    public JsonDeserializer<?> deserializerInstance(
+            DeserializationConfig config, Annotated annotated, Class<?> deserializerClass) {
+        return null;
+    }
+
+    @Override
+    public KeyDeserializer keyDeserializerInstance(
+            DeserializationConfig config, Annotated annotated, Class<?> keyDeserializerClass) {
+        return null;
+    }
+
+    @Override
+    public JsonSerializer<?> serializerInstance(
+            SerializationConfig config, Annotated annotated, Class<?> serializerClass) {
+        return null;
+    }
+
+    @Override
+    public TypeResolverBuilder<?> typeResolverBuilderInstance(
+            MapperConfig<?> config, Annotated annotated, Class<?> builderClass) {
+        return null;
+    }
+
+    @Override
+    public TypeIdResolver typeIdResolverInstance(MapperConfig<?> config, Annotated annotated, Class<?> resolverClass) {
+        if (resolverClass == JacksonTypeIdResolver.class) {
+            return new JacksonTypeIdResolver(typeRegistry, config);
+        }
+        return null;
+    }
+}
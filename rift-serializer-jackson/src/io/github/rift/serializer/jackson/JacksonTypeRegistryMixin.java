@@ -0,0 +1,13 @@
+package io.github.rift.serializer.jackson;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
+
+/**
+ * Mix-in replacing class name based type information of {@link JacksonSerializable} with ids
+ * resolved by {@link JacksonTypeIdResolver}. The property name is kept, so payloads written before
+ * the registry was enabled stay readable.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CUSTOM, property = "@class")
+@JsonTypeIdResolver(JacksonTypeIdResolver.class)
+interface JacksonTypeRegistryMixin {}
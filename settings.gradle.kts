@@ -1,8 +1,12 @@
 rootProject.name = "rift"
 include(":rift-serializer-common")
 include(":rift-serializer-jackson")
+include(":rift-serializer-jackson-binary")
+include(":rift-serializer-codec")
+include(":rift-serializer-codec-processor")
 
 include(":rift-bridge-common")
 include(":rift-bridge-redis")
 
-include(":rift-demo")
\ No newline at end of file
+include(":rift-demo")
+include(":rift-benchmarks")
\ No newline at end of file